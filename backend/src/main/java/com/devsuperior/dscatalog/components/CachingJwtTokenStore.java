@@ -0,0 +1,140 @@
+package com.devsuperior.dscatalog.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JwtTokenStore that keeps the decoded token and authentication of recently
+ * seen tokens, keyed by the SHA-256 of the token, until the token expires. A
+ * repeated token skips signature verification and JSON parsing. Tokens
+ * without an expiration are never cached.
+ * <p>
+ * Lookups and stores go straight to a ConcurrentHashMap and never lock. A
+ * store that finds the cache full sweeps it once, dropping expired entries
+ * and then, if it is still over three quarters full, arbitrary ones; one
+ * thread sweeps at a time and the others store without waiting.
+ */
+public class CachingJwtTokenStore extends JwtTokenStore implements MeterBinder {
+
+    private static final int MAX_ENTRIES = 10000;
+    private static final int SWEPT_ENTRIES = MAX_ENTRIES * 3 / 4;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public CachingJwtTokenStore(JwtAccessTokenConverter jwtTokenEnhancer) {
+        super(jwtTokenEnhancer);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return entryOf(tokenValue).accessToken;
+    }
+
+    /**
+     * Returns a copy of the cached authentication, since the authentication
+     * manager sets the request details on the instance it gets.
+     */
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        OAuth2Authentication authentication = entryOf(token).authentication;
+        return new OAuth2Authentication(authentication.getOAuth2Request(), authentication.getUserAuthentication());
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        entries.remove(digest(token.getValue()));
+        super.removeAccessToken(token);
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.token.cache.hits", hits, AtomicLong::get).register(registry);
+        FunctionCounter.builder("jwt.token.cache.misses", misses, AtomicLong::get).register(registry);
+        Gauge.builder("jwt.token.cache.hit.rate", this, CachingJwtTokenStore::getHitRate).register(registry);
+        Gauge.builder("jwt.token.cache.size", entries, Map::size).register(registry);
+    }
+
+    private Entry entryOf(String tokenValue) {
+        String key = digest(tokenValue);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        OAuth2AccessToken accessToken = super.readAccessToken(tokenValue);
+        entry = new Entry(accessToken, super.readAuthentication(tokenValue));
+        if (accessToken.getExpiration() != null) {
+            if (entries.size() >= MAX_ENTRIES) {
+                sweep(now);
+            }
+            entries.put(key, entry);
+        } else {
+            entries.remove(key);
+        }
+        return entry;
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+            Iterator<Entry> it = entries.values().iterator();
+            while (entries.size() > SWEPT_ENTRIES && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static String digest(String tokenValue) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(tokenValue.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final OAuth2AccessToken accessToken;
+        private final OAuth2Authentication authentication;
+        private final long expiresAt;
+
+        private Entry(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+            this.accessToken = accessToken;
+            this.authentication = authentication;
+            this.expiresAt = accessToken.getExpiration() != null ? accessToken.getExpiration().getTime() : 0L;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory snapshot of all categories. Reads never touch the
+ * database; the snapshot is rebuilt and swapped as a whole after every
+ * committed category write.
+ */
+@Component
+public class CategoryRegistry {
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+
+    @Autowired
+    private CategoryRepository repository;
+
+    @PostConstruct
+    public synchronized void reload() {
+        Map<Long, CategoryDTO> categories = new LinkedHashMap<>();
+        Map<Long, Instant> lastModified = new HashMap<>();
+        for (Category category : repository.findAll(Sort.by("id"))) {
+            categories.put(category.getId(), new CategoryDTO(category));
+            Instant modifiedAt = category.getUpdatedAt() != null ? category.getUpdatedAt() : category.getCreatedAt();
+            if (modifiedAt != null) {
+                lastModified.put(category.getId(), modifiedAt);
+            }
+        }
+        snapshot = new Snapshot(categories, lastModified);
+    }
+
+    public Optional<CategoryDTO> findById(Long id) {
+        return Optional.ofNullable(snapshot.categories.get(id)).map(CategoryRegistry::copyOf);
+    }
+
+    /**
+     * Strong validator of the whole snapshot: it changes whenever any category
+     * is added, renamed or removed. Listings have no Last-Modified, since a
+     * removal does not advance any category's timestamp.
+     */
+    public String getETag() {
+        return snapshot.etag;
+    }
+
+    public Optional<String> getETag(Long id) {
+        Snapshot current = snapshot;
+        return Optional.ofNullable(current.categories.get(id))
+                .map(category -> ETags.of(category.getId(), category.getName(), current.lastModified.get(id)));
+    }
+
+    public Optional<Instant> getLastModified(Long id) {
+        return Optional.ofNullable(snapshot.lastModified.get(id));
+    }
+
+    /**
+     * Returns all categories in the given order, or an empty optional when the
+     * sort uses a property the snapshot does not hold.
+     */
+    public Optional<List<CategoryDTO>> findAll(Sort sort) {
+        Comparator<CategoryDTO> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<CategoryDTO> next = comparatorOf(order);
+            if (next == null) {
+                return Optional.empty();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        List<CategoryDTO> categories = snapshot.categories.values().stream()
+                .map(CategoryRegistry::copyOf).collect(Collectors.toList());
+        if (comparator != null) {
+            categories.sort(comparator);
+        }
+        return Optional.of(categories);
+    }
+
+    public Category getReference(Long id) {
+        if (!snapshot.categories.containsKey(id)) {
+            throw new ResourceNotFoundException("Category not found: " + id);
+        }
+        return repository.getOne(id);
+    }
+
+    private static CategoryDTO copyOf(CategoryDTO category) {
+        return new CategoryDTO(category.getId(), category.getName());
+    }
+
+    private static Comparator<CategoryDTO> comparatorOf(Sort.Order order) {
+        Comparator<CategoryDTO> comparator;
+        switch (order.getProperty()) {
+            case "id":
+                comparator = Comparator.comparing(CategoryDTO::getId);
+                break;
+            case "name":
+                comparator = Comparator.comparing(CategoryDTO::getName,
+                        order.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder());
+                break;
+            default:
+                return null;
+        }
+        return order.isDescending() ? comparator.reversed() : comparator;
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, CategoryDTO> categories;
+        private final Map<Long, Instant> lastModified;
+        private final String etag;
+
+        private Snapshot(Map<Long, CategoryDTO> categories, Map<Long, Instant> lastModified) {
+            this.categories = Collections.unmodifiableMap(categories);
+            this.lastModified = Collections.unmodifiableMap(lastModified);
+            this.etag = ETags.of(categories.values().stream()
+                    .map(category -> category.getId() + "=" + category.getName() + "@" + lastModified.get(category.getId()))
+                    .collect(Collectors.joining(",")));
+        }
+    }
+}
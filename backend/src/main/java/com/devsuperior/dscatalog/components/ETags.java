@@ -0,0 +1,66 @@
+package com.devsuperior.dscatalog.components;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class ETags {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    // in the order the message converters are registered (JSON, Smile, CBOR), so a
+    // wildcard such as */* picks JSON as the converters do
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, SMILE, MediaType.APPLICATION_CBOR);
+
+    private ETags() {
+    }
+
+    public static String of(Object... parts) {
+        String content = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("\u0000"));
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * The ETag of the representation the Accept header negotiates. JSON keeps
+     * the given ETag and CBOR and Smile get the format appended, so one strong
+     * validator never stands for two encodings of the resource.
+     */
+    public static String forAccept(String etag, String accept) {
+        MediaType format = negotiate(accept);
+        if (format.equals(MediaType.APPLICATION_JSON)) {
+            return etag;
+        }
+        String suffix = format.equals(SMILE) ? "smile" : format.getSubtype();
+        return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    private static MediaType negotiate(String accept) {
+        List<MediaType> requested;
+        try {
+            requested = accept != null ? MediaType.parseMediaTypes(accept) : List.of();
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        if (requested.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType type : requested) {
+            for (MediaType format : FORMATS) {
+                if (type.isCompatibleWith(format) && type.getQualityValue() > 0.0) {
+                    compatible.add(format.copyQualityValue(type));
+                }
+            }
+        }
+        if (compatible.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType.sortByQualityValue(compatible);
+        return compatible.get(0).removeQualityValue();
+    }
+}
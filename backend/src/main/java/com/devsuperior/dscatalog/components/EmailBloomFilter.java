@@ -0,0 +1,94 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of registered user emails, sized for about a million emails
+ * at a 1% false positive rate. A negative answer is definite, so signup
+ * validation only queries the database for possible hits. Emails are never
+ * removed: a deleted or changed email just stays a possible hit.
+ */
+@Component
+public class EmailBloomFilter {
+
+    private static final int BITS = 1 << 23;
+    private static final int HASHES = 7;
+
+    private final AtomicLongArray words = new AtomicLongArray(BITS / Long.SIZE);
+    private volatile boolean ready;
+
+    @Autowired
+    private UserRepository repository;
+
+    @PostConstruct
+    public void load() {
+        repository.findAllEmails().forEach(this::put);
+        ready = true;
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash1 = hash(email);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bitOf(hash1, hash2, i);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * False only when the email was never added; true when it may have been,
+     * or when the filter is not loaded yet.
+     */
+    public boolean mightContain(String email) {
+        if (!ready) {
+            return true;
+        }
+        if (email == null) {
+            return false;
+        }
+        long hash1 = hash(email);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bitOf(hash1, hash2, i);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bitOf(long hash1, long hash2, int i) {
+        return (int) ((hash1 + i * hash2) & (BITS - 1));
+    }
+
+    // 64-bit FNV-1a
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // splitmix64 finalizer, made odd so the probes of an email never repeat
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return (hash ^ (hash >>> 31)) | 1L;
+    }
+}
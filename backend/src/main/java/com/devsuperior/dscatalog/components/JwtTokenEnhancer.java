@@ -3,6 +3,7 @@ package com.devsuperior.dscatalog.components;
 import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
@@ -20,7 +21,7 @@ public class JwtTokenEnhancer implements TokenEnhancer {
 
     @Override
     public OAuth2AccessToken enhance(OAuth2AccessToken oAuth2AccessToken, OAuth2Authentication oAuth2Authentication) {
-        User user = userRepository.findByEmail(oAuth2Authentication.getName());
+        User user = userOf(oAuth2Authentication);
 
         Map<String, Object> map = new HashMap<>();
         map.put("userFirstName", user.getFirstName());
@@ -31,4 +32,17 @@ public class JwtTokenEnhancer implements TokenEnhancer {
 
         return token;
     }
+
+    /**
+     * The password grant authenticates with the User loaded by UserService, so
+     * the principal already holds what the token needs; other grants fall
+     * back to a lookup by email.
+     */
+    private User userOf(OAuth2Authentication oAuth2Authentication) {
+        Authentication userAuthentication = oAuth2Authentication.getUserAuthentication();
+        if (userAuthentication != null && userAuthentication.getPrincipal() instanceof User) {
+            return (User) userAuthentication.getPrincipal();
+        }
+        return userRepository.findByEmail(oAuth2Authentication.getName());
+    }
 }
@@ -0,0 +1,50 @@
+package com.devsuperior.dscatalog.components;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of listing totals keyed by filter, so paged responses do not
+ * issue a COUNT query on every request. Services invalidate a key prefix when
+ * they commit writes to the underlying table.
+ */
+@Component
+public class PageCountCache {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, Long> counts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+
+    public long get(String key, LongSupplier loader) {
+        Long count = counts.get(key);
+        if (count != null) {
+            return count;
+        }
+        long loadedAt = generation.get();
+        count = loader.getAsLong();
+        synchronized (counts) {
+            if (generation.get() == loadedAt) {
+                counts.put(key, count);
+            }
+        }
+        return count;
+    }
+
+    public void invalidate(String keyPrefix) {
+        synchronized (counts) {
+            generation.incrementAndGet();
+            counts.keySet().removeIf(key -> key.startsWith(keyPrefix));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bitmap of product ids per category, mirroring tb_product_category, so
+ * that any/all category filters are answered with a union or an intersection
+ * instead of a join.
+ */
+@Component
+public class ProductCategoryIndex {
+
+    private final Map<Long, BitSet> products = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @PostConstruct
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            for (ProductCategoryProjection category : repository.findAllCategories()) {
+                products.computeIfAbsent(category.getId(), key -> new BitSet())
+                        .set(bitOf(category.getProductId()));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long productId, Collection<Long> categoryIds) {
+        int bit = bitOf(productId);
+        lock.writeLock().lock();
+        try {
+            products.values().forEach(bitmap -> bitmap.clear(bit));
+            for (Long categoryId : categoryIds) {
+                products.computeIfAbsent(categoryId, key -> new BitSet()).set(bit);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        int bit = bitOf(productId);
+        lock.writeLock().lock();
+        try {
+            products.values().forEach(bitmap -> bitmap.clear(bit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the products in any (or all, when matchAll is set)
+     * of the given categories, or an empty optional when the index is not
+     * loaded yet.
+     */
+    public Optional<BitSet> match(Collection<Long> categoryIds, boolean matchAll) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (Long categoryId : categoryIds) {
+                BitSet bitmap = products.getOrDefault(categoryId, new BitSet());
+                if (result == null) {
+                    result = (BitSet) bitmap.clone();
+                } else if (matchAll) {
+                    result.and(bitmap);
+                } else {
+                    result.or(bitmap);
+                }
+            }
+            return Optional.of(result == null ? new BitSet() : result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the products in at least one category, which are the ones the
+     * listing shows when no category is requested.
+     */
+    public Optional<BitSet> categorized() {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet result = new BitSet();
+            products.values().forEach(result::or);
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns how many of the given products fall in each category, counting
+     * every product when productIds is null, or an empty optional when the
+     * index is not loaded yet.
+     */
+    public Optional<Map<Long, Long>> countByCategory(BitSet productIds) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> result = new HashMap<>();
+            for (Map.Entry<Long, BitSet> entry : products.entrySet()) {
+                BitSet members = entry.getValue();
+                if (productIds != null) {
+                    members = (BitSet) members.clone();
+                    members.and(productIds);
+                }
+                result.put(entry.getKey(), (long) members.cardinality());
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int bitOf(Long productId) {
+        return Math.toIntExact(productId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * ETags of recently read products, so a conditional GET can be answered
+ * without loading the product. Entries are evicted when a write commits;
+ * a read that started before an eviction does not repopulate the entry.
+ */
+@Component
+public class ProductETagCache {
+
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, String> etags = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+
+    public Optional<String> find(Long id) {
+        return Optional.ofNullable(etags.get(id));
+    }
+
+    public long stamp() {
+        return generation.get();
+    }
+
+    public String put(ProductDTO product, long stamp) {
+        String categories = product.getCategories().stream()
+                .sorted(Comparator.comparing(CategoryDTO::getId))
+                .map(category -> category.getId() + "=" + category.getName())
+                .collect(Collectors.joining(","));
+        String etag = ETags.of(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getImgUrl(), product.getDate(), categories);
+        synchronized (etags) {
+            if (generation.get() == stamp) {
+                etags.put(product.getId(), etag);
+            }
+        }
+        return etag;
+    }
+
+    public void evict(Long id) {
+        synchronized (etags) {
+            generation.incrementAndGet();
+            etags.remove(id);
+        }
+    }
+
+    public void clear() {
+        synchronized (etags) {
+            generation.incrementAndGet();
+            etags.clear();
+        }
+    }
+}
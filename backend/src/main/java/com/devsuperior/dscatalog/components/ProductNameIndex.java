@@ -0,0 +1,161 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.projections.ProductNameProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over product names, used to answer the
+ * case-insensitive substring filter of the product listing without
+ * scanning tb_product. Names are held in an array indexed by product id and
+ * each trigram maps to a bitmap of the ids whose name contains it, so a
+ * search intersects the bitmaps of the text's trigrams and only checks the
+ * names left.
+ * <p>
+ * Text shorter than a trigram has no posting to narrow it, so it is checked
+ * against every name, stopping as soon as it matches more than maxResults.
+ */
+@Component
+public class ProductNameIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private final BitSet ids = new BitSet();
+    private final Map<String, BitSet> grams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private String[] names = new String[0];
+    private volatile boolean ready;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @PostConstruct
+    public void load() {
+        for (ProductNameProjection product : repository.findAllNames()) {
+            put(product.getId(), product.getName());
+        }
+        ready = true;
+    }
+
+    public void put(Long id, String name) {
+        int bit = bitOf(id);
+        lock.writeLock().lock();
+        try {
+            forget(bit);
+            if (name == null) {
+                return;
+            }
+            String normalized = normalize(name);
+            if (bit >= names.length) {
+                names = Arrays.copyOf(names, Math.max(bit + 1, names.length * 2));
+            }
+            names[bit] = normalized;
+            ids.set(bit);
+            for (String gram : gramsOf(normalized)) {
+                grams.computeIfAbsent(gram, key -> new BitSet()).set(bit);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        int bit = bitOf(id);
+        lock.writeLock().lock();
+        try {
+            forget(bit);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the products whose name contains the given text, or
+     * an empty optional when the index is not loaded yet or the text matches
+     * more than maxResults products, so the caller should filter in the database.
+     */
+    public Optional<BitSet> search(String name, int maxResults) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String normalized = normalize(name);
+        lock.readLock().lock();
+        try {
+            BitSet candidates = null;
+            if (normalized.length() >= GRAM_SIZE) {
+                for (String gram : gramsOf(normalized)) {
+                    BitSet bitmap = grams.getOrDefault(gram, new BitSet());
+                    if (candidates == null) {
+                        candidates = (BitSet) bitmap.clone();
+                    } else {
+                        candidates.and(bitmap);
+                    }
+                }
+            } else {
+                candidates = ids;
+            }
+
+            BitSet result = new BitSet();
+            int count = 0;
+            for (int bit = candidates.nextSetBit(0); bit >= 0; bit = candidates.nextSetBit(bit + 1)) {
+                if (names[bit].contains(normalized)) {
+                    if (count == maxResults) {
+                        return Optional.empty();
+                    }
+                    result.set(bit);
+                    count++;
+                }
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // callers hold the write lock
+    private void forget(int bit) {
+        if (!ids.get(bit)) {
+            return;
+        }
+        for (String gram : gramsOf(names[bit])) {
+            BitSet bitmap = grams.get(gram);
+            if (bitmap != null) {
+                bitmap.clear(bit);
+                if (bitmap.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+        names[bit] = null;
+        ids.clear(bit);
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private static int bitOf(Long productId) {
+        return Math.toIntExact(productId);
+    }
+}
@@ -0,0 +1,284 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.projections.ProductRangeProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Product ids sorted by price and by date, kept in primitive arrays so that
+ * range filters are two binary searches and a price or date ordered page is
+ * a walk over one of the arrays.
+ */
+@Component
+public class ProductRangeIndex {
+
+    public static final String PRICE = "price";
+    public static final String DATE = "date";
+
+    private volatile Column prices;
+    private volatile Column dates;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @PostConstruct
+    public synchronized void load() {
+        List<ProductRangeProjection> products = repository.findAllRanges();
+        prices = Column.of(products, product -> priceKey(product.getPrice()));
+        dates = Column.of(products, product -> dateKey(product.getDate()));
+    }
+
+    public void put(Long id, Double price, Instant date) {
+        putAll(new long[] {id}, new Double[] {price}, new Instant[] {date});
+    }
+
+    /**
+     * Moves the products to their new prices and dates in one merge per
+     * column, so a batch costs one pass over the index rather than one per
+     * product. When an id repeats, its last values win.
+     */
+    public synchronized void putAll(long[] ids, Double[] prices, Instant[] dates) {
+        if (this.prices == null) {
+            return;
+        }
+        BitSet moved = new BitSet();
+        long[] movedIds = new long[ids.length];
+        long[] priceKeys = new long[ids.length];
+        long[] dateKeys = new long[ids.length];
+        int count = 0;
+        for (int i = ids.length - 1; i >= 0; i--) {
+            if (moved.get((int) ids[i])) {
+                continue;
+            }
+            moved.set((int) ids[i]);
+            movedIds[count] = ids[i];
+            priceKeys[count] = priceKey(prices[i]);
+            dateKeys[count++] = dateKey(dates[i]);
+        }
+        this.prices = this.prices.merge(moved, Arrays.copyOf(priceKeys, count), Arrays.copyOf(movedIds, count));
+        this.dates = this.dates.merge(moved, Arrays.copyOf(dateKeys, count), Arrays.copyOf(movedIds, count));
+    }
+
+    public void remove(Long id) {
+        removeAll(new long[] {id});
+    }
+
+    public synchronized void removeAll(long[] ids) {
+        if (prices == null) {
+            return;
+        }
+        BitSet removed = bitsOf(ids);
+        prices = prices.merge(removed, new long[0], new long[0]);
+        dates = dates.merge(removed, new long[0], new long[0]);
+    }
+
+    /**
+     * Returns the products priced between min and max, both inclusive and
+     * optional, or an empty optional when the index is not loaded yet.
+     */
+    public Optional<BitSet> selectPrice(Double min, Double max) {
+        Column column = prices;
+        if (column == null) {
+            return Optional.empty();
+        }
+        return Optional.of(column.select(min == null ? Long.MIN_VALUE : priceKey(min),
+                max == null ? Column.NULL_KEY - 1 : priceKey(max)));
+    }
+
+    public Optional<BitSet> selectDate(Instant from, Instant to) {
+        Column column = dates;
+        if (column == null) {
+            return Optional.empty();
+        }
+        return Optional.of(column.select(from == null ? Long.MIN_VALUE : dateKey(from),
+                to == null ? Column.NULL_KEY - 1 : dateKey(to)));
+    }
+
+    /**
+     * Returns the ids of the candidates at positions offset to offset + size
+     * when ordered by the given property, nulls last in ascending order, or an
+     * empty optional when the property is not indexed or the index is not
+     * loaded yet.
+     */
+    public Optional<long[]> top(String property, boolean descending, BitSet candidates, long offset, int size) {
+        Column column = PRICE.equals(property) ? prices : DATE.equals(property) ? dates : null;
+        if (column == null) {
+            return Optional.empty();
+        }
+        long[] result = new long[size];
+        int found = 0;
+        long skipped = 0;
+        int length = column.ids.length;
+        for (int i = 0; i < length && found < size; i++) {
+            long id = column.ids[descending ? length - 1 - i : i];
+            if (candidates.get((int) id)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result[found++] = id;
+                }
+            }
+        }
+        return Optional.of(Arrays.copyOf(result, found));
+    }
+
+    private static long priceKey(Double price) {
+        if (price == null) {
+            return Column.NULL_KEY;
+        }
+        long bits = Double.doubleToLongBits(price + 0.0);
+        return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+    }
+
+    private static long dateKey(Instant date) {
+        return date == null ? Column.NULL_KEY : date.toEpochMilli();
+    }
+
+    private static BitSet bitsOf(long[] ids) {
+        BitSet bits = new BitSet();
+        for (long id : ids) {
+            bits.set((int) id);
+        }
+        return bits;
+    }
+
+    /**
+     * Ids sorted by key, then by id. Columns are never modified: writes copy
+     * the arrays, so readers can use them without locking.
+     */
+    private static final class Column {
+        private static final long NULL_KEY = Long.MAX_VALUE;
+
+        private final long[] keys;
+        private final long[] ids;
+
+        private Column(long[] keys, long[] ids) {
+            this.keys = keys;
+            this.ids = ids;
+        }
+
+        private static Column of(List<ProductRangeProjection> products, ToLongFunction<ProductRangeProjection> key) {
+            long[] keys = new long[products.size()];
+            long[] ids = new long[products.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = key.applyAsLong(products.get(i));
+                ids[i] = products.get(i).getId();
+            }
+            sort(keys, ids);
+            return new Column(keys, ids);
+        }
+
+        private BitSet select(long min, long max) {
+            BitSet result = new BitSet();
+            if (min > max) {
+                return result;
+            }
+            int from = lowerBound(min, Long.MIN_VALUE);
+            int to = lowerBound(max, Long.MAX_VALUE);
+            for (int i = from; i < to; i++) {
+                result.set((int) ids[i]);
+            }
+            return result;
+        }
+
+        /**
+         * Returns a column without the dropped ids and with the added pairs,
+         * built in one pass over both. The added arrays are sorted in place.
+         */
+        private Column merge(BitSet dropped, long[] addedKeys, long[] addedIds) {
+            sort(addedKeys, addedIds);
+            long[] newKeys = new long[ids.length + addedIds.length];
+            long[] newIds = new long[ids.length + addedIds.length];
+            int size = 0;
+            int added = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (dropped.get((int) ids[i])) {
+                    continue;
+                }
+                while (added < addedIds.length && less(addedKeys[added], addedIds[added], keys[i], ids[i])) {
+                    newKeys[size] = addedKeys[added];
+                    newIds[size++] = addedIds[added++];
+                }
+                newKeys[size] = keys[i];
+                newIds[size++] = ids[i];
+            }
+            while (added < addedIds.length) {
+                newKeys[size] = addedKeys[added];
+                newIds[size++] = addedIds[added++];
+            }
+            return new Column(Arrays.copyOf(newKeys, size), Arrays.copyOf(newIds, size));
+        }
+
+        /**
+         * First position whose (key, id) is not less than the given pair; with
+         * id at Long.MAX_VALUE that is the first position past the key.
+         */
+        private int lowerBound(long key, long id) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle] < key || (keys[middle] == key && ids[middle] < id)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static boolean less(long key, long id, long otherKey, long otherId) {
+            return key < otherKey || (key == otherKey && id < otherId);
+        }
+
+        /**
+         * Heapsort of the (key, id) pairs held in the two parallel arrays, so
+         * nothing is boxed.
+         */
+        private static void sort(long[] keys, long[] ids) {
+            int length = keys.length;
+            for (int i = length / 2 - 1; i >= 0; i--) {
+                siftDown(keys, ids, i, length);
+            }
+            for (int end = length - 1; end > 0; end--) {
+                swap(keys, ids, 0, end);
+                siftDown(keys, ids, 0, end);
+            }
+        }
+
+        private static void siftDown(long[] keys, long[] ids, int root, int length) {
+            while (true) {
+                int child = 2 * root + 1;
+                if (child >= length) {
+                    return;
+                }
+                if (child + 1 < length && less(keys[child], ids[child], keys[child + 1], ids[child + 1])) {
+                    child++;
+                }
+                if (!less(keys[root], ids[root], keys[child], ids[child])) {
+                    return;
+                }
+                swap(keys, ids, root, child);
+                root = child;
+            }
+        }
+
+        private static void swap(long[] keys, long[] ids, int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            long id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.devsuperior.dscatalog.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of rendered GET responses, holding each body as written and
+ * gzipped once at the highest level, so a repeated request is answered
+ * without mapping, serializing or compressing anything. Keys start with the
+ * request path; services invalidate a path prefix when they commit writes,
+ * and a response rendered before an invalidation is not stored.
+ * <p>
+ * Lookups only read a ConcurrentHashMap and set the entry's referenced bit;
+ * they never lock. Stores and invalidations serialize on the cache. Eviction
+ * is CLOCK, an approximate LRU: the hand walks the entries in insertion
+ * order, gives a referenced entry a second chance by clearing its bit and
+ * evicts the first one that was not read since the hand last passed. The
+ * entry being stored is never the one evicted for it.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    public static final String PRODUCTS = "/products";
+    public static final String CATEGORIES = "/categories";
+
+    private static final int MIN_COMPRESSED_SIZE = 1024;
+
+    @Value("${response-cache.max-entries}")
+    private int maxEntries;
+
+    @Value("${response-cache.max-bytes}")
+    private long maxBytes;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ConcurrentHashMap<String, Node> entries = new ConcurrentHashMap<>();
+    // guarded by this; nodes in the order the clock hand visits them
+    private final ArrayDeque<Node> clock = new ArrayDeque<>();
+    private volatile long bytes;
+
+    public Entry find(String key) {
+        Node node = entries.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.entry;
+    }
+
+    public long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * Stores the entry unless an invalidation happened after the stamp was
+     * taken, then evicts entries over the bounds.
+     */
+    public synchronized void put(String key, Entry entry, long stamp) {
+        if (generation.get() != stamp || entry.size() > maxBytes || maxEntries < 1) {
+            return;
+        }
+        Node node = new Node(key, entry);
+        Node previous = entries.put(key, node);
+        long size = bytes + entry.size();
+        if (previous != null) {
+            previous.removed = true;
+            size -= previous.entry.size();
+        }
+        clock.addLast(node);
+        while (size > maxBytes || entries.size() > maxEntries) {
+            Node hand = clock.pollFirst();
+            if (hand.removed) {
+                continue;
+            }
+            if (hand.referenced || hand == node) {
+                hand.referenced = false;
+                clock.addLast(hand);
+                continue;
+            }
+            hand.removed = true;
+            entries.remove(hand.key, hand);
+            size -= hand.entry.size();
+        }
+        bytes = size;
+    }
+
+    public synchronized void invalidate(String pathPrefix) {
+        generation.incrementAndGet();
+        long size = bytes;
+        Iterator<Node> it = clock.iterator();
+        while (it.hasNext()) {
+            Node node = it.next();
+            if (node.removed || node.key.startsWith(pathPrefix)) {
+                it.remove();
+                if (!node.removed) {
+                    node.removed = true;
+                    entries.remove(node.key, node);
+                    size -= node.entry.size();
+                }
+            }
+        }
+        bytes = size;
+    }
+
+    public void clear() {
+        invalidate("");
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("response.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("response.cache.misses", misses, LongAdder::sum).register(registry);
+        Gauge.builder("response.cache.size", this, ResponseCache::getSize).register(registry);
+        Gauge.builder("response.cache.bytes", this, ResponseCache::getBytes).baseUnit("bytes").register(registry);
+    }
+
+    private static final class Node {
+        private final String key;
+        private final Entry entry;
+        private volatile boolean referenced;
+        // guarded by the cache; set once the node left the map
+        private boolean removed;
+
+        private Node(String key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * A 200 response: its content type, validators, the handler pattern it
+     * was served by (for request metrics) and its body, plus the gzipped
+     * body when the body is large enough for compression to pay off.
+     */
+    public static final class Entry {
+        private final String contentType;
+        private final String etag;
+        private final long lastModified;
+        private final String pattern;
+        private final byte[] body;
+        private final byte[] gzipped;
+
+        public Entry(String contentType, String etag, long lastModified, String pattern, byte[] body) {
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.pattern = pattern;
+            this.body = body;
+            this.gzipped = gzip(body);
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * The gzipped body, or null when the body is sent uncompressed.
+         */
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+
+        private long size() {
+            return body.length + (gzipped == null ? 0 : gzipped.length);
+        }
+
+        private static byte[] gzip(byte[] body) {
+            if (body.length < MIN_COMPRESSED_SIZE) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] compressed = out.toByteArray();
+            return compressed.length < body.length ? compressed : null;
+        }
+    }
+}
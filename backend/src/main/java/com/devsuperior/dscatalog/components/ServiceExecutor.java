@@ -0,0 +1,38 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Moves service calls off the request thread. With async.enabled=false the
+ * call runs inline and the returned future is already complete.
+ */
+@Component
+public class ServiceExecutor {
+
+    @Value("${async.enabled}")
+    private boolean enabled;
+
+    @Autowired
+    @Qualifier("serviceTaskExecutor")
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, taskExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many requests in progress, try again later");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.devsuperior.dscatalog.components;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public service method, every repository call and token
+ * issuance, tagged by class, method and the exception thrown, if any. Each
+ * tag combination's Timer is registered once and then looked up by key, so a
+ * call does not go through the registry.
+ */
+@Aspect
+@Component
+public class TimingAspect {
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Around("execution(public * com.devsuperior.dscatalog.services.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service.calls", joinPoint.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = repositoryNames.computeIfAbsent(joinPoint.getTarget().getClass(), TimingAspect::repositoryName);
+        return time(joinPoint, "repository.calls", name);
+    }
+
+    @Around("execution(* org.springframework.security.oauth2.provider.endpoint.TokenEndpoint.postAccessToken(..))")
+    public Object timeTokenIssue(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "oauth.token.issue", "TokenEndpoint");
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String name, String className) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timer(name, className, joinPoint.getSignature().getName(), exception));
+        }
+    }
+
+    private Timer timer(String name, String className, String method, String exception) {
+        TimerKey key = new TimerKey(name, className, method, exception);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> Timer.builder(k.name)
+                    .tag("class", k.className)
+                    .tag("method", k.method)
+                    .tag("exception", k.exception)
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    // repository proxies are JDK proxies; name them after the interface they implement
+    private static String repositoryName(Class<?> targetClass) {
+        for (Class<?> type : targetClass.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type)) {
+                return type.getSimpleName();
+            }
+        }
+        return targetClass.getSimpleName();
+    }
+
+    private static final class TimerKey {
+        private final String name;
+        private final String className;
+        private final String method;
+        private final String exception;
+
+        private TimerKey(String name, String className, String method, String exception) {
+            this.name = name;
+            this.className = className;
+            this.method = method;
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimerKey)) {
+                return false;
+            }
+            TimerKey other = (TimerKey) o;
+            return name.equals(other.name) && className.equals(other.className)
+                    && method.equals(other.method) && exception.equals(other.exception);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = name.hashCode();
+            result = 31 * result + className.hashCode();
+            result = 31 * result + method.hashCode();
+            return 31 * result + exception.hashCode();
+        }
+    }
+}
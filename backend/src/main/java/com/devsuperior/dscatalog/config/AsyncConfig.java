@@ -0,0 +1,55 @@
+package com.devsuperior.dscatalog.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${async.pool-size}")
+    private int poolSize;
+
+    @Value("${async.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${async.timeout}")
+    private long timeout;
+
+    /**
+     * Runs the service calls of the resources. It has as many threads as the
+     * connection pool has connections, and rejects work once its queue is
+     * full instead of letting requests pile up.
+     */
+    @Bean
+    ThreadPoolTaskExecutor serviceTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("service-");
+        return executor;
+    }
+
+    /**
+     * Publishes executor.queued, executor.active and the other executor
+     * meters under name=service.
+     */
+    @Bean
+    MeterBinder serviceExecutorMetrics(ThreadPoolTaskExecutor serviceTaskExecutor) {
+        return registry -> new ExecutorServiceMetrics(serviceTaskExecutor.getThreadPoolExecutor(), "service", Tags.empty())
+                .bindTo(registry);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeout);
+        configurer.setTaskExecutor(serviceTaskExecutor());
+    }
+}
@@ -0,0 +1,46 @@
+package com.devsuperior.dscatalog.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Share of the Hikari pool in use, from 0 to 1, next to the
+     * hikaricp.connections.* meters Spring Boot already publishes. At 1 new
+     * requests wait for a connection (see hikaricp.connections.pending).
+     */
+    @Bean
+    MeterBinder hikariSaturationMetrics(DataSource dataSource) {
+        return registry -> {
+            HikariDataSource hikari;
+            try {
+                if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                    return;
+                }
+                hikari = dataSource.unwrap(HikariDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            Gauge.builder("hikaricp.connections.saturation", hikari, MetricsConfig::saturationOf)
+                    .tag("pool", String.valueOf(hikari.getPoolName()))
+                    .register(registry);
+        };
+    }
+
+    private static double saturationOf(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0.0;
+        }
+        return (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+}
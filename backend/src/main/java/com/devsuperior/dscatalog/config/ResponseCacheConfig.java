@@ -0,0 +1,37 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.components.ResponseCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.DispatcherType;
+
+/**
+ * Registers ResponseCacheFilter right after the Spring Security filters, so
+ * cached responses still get the CORS and security headers and requests
+ * with a bad token are still rejected.
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Value("${response-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${response-cache.max-entry-bytes}")
+    private int maxEntryBytes;
+
+    @Bean
+    FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(ResponseCache cache) {
+        FilterRegistrationBean<ResponseCacheFilter> bean
+                = new FilterRegistrationBean<>(new ResponseCacheFilter(cache, maxEntryBytes));
+        bean.addUrlPatterns(ResponseCache.PRODUCTS, ResponseCache.PRODUCTS + "/*",
+                ResponseCache.CATEGORIES, ResponseCache.CATEGORIES + "/*");
+        bean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        bean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        bean.setEnabled(enabled);
+        return bean;
+    }
+}
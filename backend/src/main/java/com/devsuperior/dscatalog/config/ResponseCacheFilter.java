@@ -0,0 +1,194 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.components.ResponseCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * Answers GET requests for the product and category listings and for single
+ * products and categories from ResponseCache, keyed by path, query and
+ * Accept. A hit is written straight to the response, or answered with 304
+ * when the client's validators still match, without reaching the
+ * DispatcherServlet. A miss goes through with the body buffered and a 200
+ * is stored; either way the client gets the gzipped body when its
+ * Accept-Encoding allows.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern CACHEABLE_PATH = Pattern.compile("(" + ResponseCache.PRODUCTS + "|"
+            + ResponseCache.CATEGORIES + ")(/\\d+)?");
+    private static final String GZIP = "gzip";
+
+    private final ResponseCache cache;
+    private final int maxEntryBytes;
+
+    public ResponseCacheFilter(ResponseCache cache, int maxEntryBytes) {
+        this.cache = cache;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * The controllers answer asynchronously, so the body is only complete
+     * when the async dispatch ends.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request)) {
+            String key = keyOf(request);
+            if (key != null) {
+                ResponseCache.Entry entry = cache.find(key);
+                if (entry != null) {
+                    if (entry.getPattern() != null) {
+                        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, entry.getPattern());
+                    }
+                    writeCached(entry, request, response);
+                    return;
+                }
+                responseToUse = new CapturingResponse(response, key, cache.stamp());
+            }
+        }
+        chain.doFilter(request, responseToUse);
+        if (!isAsyncStarted(request)) {
+            CapturingResponse capturing = WebUtils.getNativeResponse(responseToUse, CapturingResponse.class);
+            if (capturing != null) {
+                store(capturing, request);
+            }
+        }
+    }
+
+    private void store(CapturingResponse response, HttpServletRequest request) throws IOException {
+        HttpServletResponse rawResponse = (HttpServletResponse) response.getResponse();
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.getContentType() == null
+                || response.getContentSize() > maxEntryBytes
+                || rawResponse.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                || rawResponse.containsHeader(HttpHeaders.SET_COOKIE)) {
+            response.copyBodyToResponse();
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ResponseCache.Entry entry = new ResponseCache.Entry(response.getContentType(),
+                rawResponse.getHeader(HttpHeaders.ETAG), lastModifiedOf(rawResponse),
+                pattern != null ? pattern.toString() : null, response.getContentAsByteArray());
+        cache.put(response.key, entry, response.stamp);
+        vary(rawResponse);
+        writeBody(entry, request, rawResponse);
+    }
+
+    private static void writeCached(ResponseCache.Entry entry, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        // a 304 must name the same Vary headers as the 200 it stands for
+        vary(response);
+        if ((entry.getETag() != null || entry.getLastModified() >= 0)
+                && new ServletWebRequest(request, response).checkNotModified(entry.getETag(), entry.getLastModified())) {
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.getContentType());
+        writeBody(entry, request, response);
+    }
+
+    private static void writeBody(ResponseCache.Entry entry, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        byte[] body = entry.getBody();
+        if (entry.getGzipped() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            body = entry.getGzipped();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static void vary(HttpServletResponse response) {
+        VaryHeader.add(response, HttpHeaders.ACCEPT);
+        VaryHeader.add(response, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!CACHEABLE_PATH.matcher(path).matches()) {
+            return null;
+        }
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return path + "?" + (query != null ? query : "") + " " + (accept != null ? accept : "");
+    }
+
+    private static long lastModifiedOf(HttpServletResponse response) {
+        String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+        if (lastModified == null) {
+            return -1L;
+        }
+        return ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    }
+
+    /**
+     * True when the Accept-Encoding header gives gzip, or failing that "*",
+     * a non-zero quality.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1.0;
+        double any = -1.0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GZIP)) {
+                gzip = qualityOf(parts);
+            } else if (name.equals("*")) {
+                any = qualityOf(parts);
+            }
+        }
+        return (gzip >= 0.0 ? gzip : any) > 0.0;
+    }
+
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0.0;
+                }
+            }
+        }
+        return 1.0;
+    }
+
+    private static final class CapturingResponse extends ContentCachingResponseWrapper {
+        private final String key;
+        private final long stamp;
+
+        private CapturingResponse(HttpServletResponse response, String key, long stamp) {
+            super(response);
+            this.key = key;
+            this.stamp = stamp;
+        }
+    }
+}
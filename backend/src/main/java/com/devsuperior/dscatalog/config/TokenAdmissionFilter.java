@@ -0,0 +1,59 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.components.PooledPasswordEncoder;
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Turns /oauth/token requests away with 503 and Retry-After while the
+ * password pool is saturated, before the client secret is checked. It also
+ * answers the same way when a password check in the security filters is
+ * rejected by the pool.
+ */
+public class TokenAdmissionFilter extends OncePerRequestFilter {
+
+    private final PooledPasswordEncoder passwordEncoder;
+    private final String retryAfter;
+
+    public TokenAdmissionFilter(PooledPasswordEncoder passwordEncoder, int retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfter = String.valueOf(retryAfter);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (passwordEncoder.isSaturated()) {
+            reject(response, "Too many password checks in progress, try again later");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof ServiceUnavailableException)) {
+                cause = cause.getCause();
+            }
+            if (cause == null || response.isCommitted()) {
+                throw e;
+            }
+            reject(response, cause.getMessage());
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"temporarily_unavailable\",\"error_description\":\"" + message + "\"}");
+    }
+}
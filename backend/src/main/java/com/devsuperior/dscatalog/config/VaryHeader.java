@@ -0,0 +1,26 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletResponse;
+
+final class VaryHeader {
+
+    private VaryHeader() {
+    }
+
+    /**
+     * Adds the request header to Vary unless an earlier filter or handler
+     * already listed it.
+     */
+    static void add(HttpServletResponse response, String header) {
+        for (String value : response.getHeaders(HttpHeaders.VARY)) {
+            for (String listed : value.split(",")) {
+                if (listed.trim().equalsIgnoreCase(header)) {
+                    return;
+                }
+            }
+        }
+        response.addHeader(HttpHeaders.VARY, header);
+    }
+}
@@ -1,15 +1,18 @@
 package com.devsuperior.dscatalog.config;
 
+import com.devsuperior.dscatalog.components.CachingJwtTokenStore;
+import com.devsuperior.dscatalog.components.PooledPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
-import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 
 @Configuration
 @EnableWebSecurity
@@ -18,9 +21,28 @@ public class WebSecurityConfig {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${password.pool-size}")
+    private int passwordPoolSize;
+
+    @Value("${password.queue-capacity}")
+    private int passwordQueueCapacity;
+
+    @Value("${retry-after.seconds}")
+    private int retryAfter;
+
+    @Bean
+    PooledPasswordEncoder passwordEncoder(MeterRegistry registry) {
+        int poolSize = passwordPoolSize > 0 ? passwordPoolSize : Runtime.getRuntime().availableProcessors();
+        return new PooledPasswordEncoder(poolSize, passwordQueueCapacity, registry);
+    }
+
     @Bean
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    FilterRegistrationBean<TokenAdmissionFilter> tokenAdmissionFilter(PooledPasswordEncoder passwordEncoder) {
+        FilterRegistrationBean<TokenAdmissionFilter> bean
+                = new FilterRegistrationBean<>(new TokenAdmissionFilter(passwordEncoder, retryAfter));
+        bean.addUrlPatterns("/oauth/token");
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return bean;
     }
 
     @Bean
@@ -31,8 +53,8 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    JwtTokenStore tokenStore() {
-        return new JwtTokenStore(accessTokenConverter());
+    CachingJwtTokenStore tokenStore() {
+        return new CachingJwtTokenStore(accessTokenConverter());
     }
 
     @Bean
@@ -0,0 +1,38 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchErrorDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer index;
+    private List<FieldMessage> errors = new ArrayList<>();
+
+    public BatchErrorDTO() {
+    }
+
+    public BatchErrorDTO(Integer index, List<FieldMessage> errors) {
+        this.index = index;
+        this.errors = errors;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public List<FieldMessage> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<FieldMessage> errors) {
+        this.errors = errors;
+    }
+}
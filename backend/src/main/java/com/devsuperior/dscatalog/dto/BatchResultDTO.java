@@ -0,0 +1,35 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch insert: ids holds the created id of each item in
+ * request order, or null for the items listed in errors.
+ */
+public class BatchResultDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> ids = new ArrayList<>();
+    private List<BatchErrorDTO> errors = new ArrayList<>();
+
+    public BatchResultDTO() {
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<BatchErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
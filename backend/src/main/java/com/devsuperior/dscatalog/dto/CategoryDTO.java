@@ -1,12 +1,21 @@
 package com.devsuperior.dscatalog.dto;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import com.devsuperior.dscatalog.entities.Category;
 
 public class CategoryDTO implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Properties selectable with the fields parameter of the listing.
+	 */
+	public static final Map<String, Function<CategoryDTO, Object>> FIELDS = fields();
+
 	private Long id;
 	private String name;
 
@@ -40,4 +49,10 @@ public class CategoryDTO implements Serializable {
 		this.name = name;
 	}
 
+	private static Map<String, Function<CategoryDTO, Object>> fields() {
+		Map<String, Function<CategoryDTO, Object>> fields = new LinkedHashMap<>();
+		fields.put("id", CategoryDTO::getId);
+		fields.put("name", CategoryDTO::getName);
+		return Collections.unmodifiableMap(fields);
+	}
 }
@@ -0,0 +1,25 @@
+package com.devsuperior.dscatalog.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+
+/**
+ * A page serialized exactly like {@link PageImpl}, plus the number of
+ * matching products in each category.
+ */
+public class FacetedPageDTO<T> extends PageImpl<T> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<CategoryFacetDTO> facets;
+
+    public FacetedPageDTO(Page<T> page, List<CategoryFacetDTO> facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public List<CategoryFacetDTO> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,72 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Properties picked by a fields=a,b,c parameter out of the selectable
+ * properties of a DTO. Rows are rendered as maps holding only those
+ * properties, in the DTO's declaration order.
+ */
+public final class FieldSelection<T> {
+
+    private final Map<String, Function<T, Object>> fields;
+
+    private FieldSelection(Map<String, Function<T, Object>> fields) {
+        this.fields = fields;
+    }
+
+    public static <T> FieldSelection<T> all(Map<String, Function<T, Object>> selectable) {
+        return new FieldSelection<>(selectable);
+    }
+
+    /**
+     * Parses a comma separated list of names; an empty list selects every
+     * property and an unknown name is rejected.
+     */
+    public static <T> FieldSelection<T> of(String names, Map<String, Function<T, Object>> selectable) {
+        List<String> requested = new ArrayList<>();
+        for (String name : names.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!selectable.containsKey(field)) {
+                throw new BadRequestException("Unknown field: " + field + ", must be one of " + selectable.keySet());
+            }
+            requested.add(field);
+        }
+        if (requested.isEmpty()) {
+            return all(selectable);
+        }
+        Map<String, Function<T, Object>> fields = new LinkedHashMap<>();
+        selectable.forEach((field, getter) -> {
+            if (requested.contains(field)) {
+                fields.put(field, getter);
+            }
+        });
+        return new FieldSelection<>(Collections.unmodifiableMap(fields));
+    }
+
+    public boolean contains(String field) {
+        return fields.containsKey(field);
+    }
+
+    public Map<String, Object> apply(T item) {
+        Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+        fields.forEach((field, getter) -> row.put(field, getter.apply(item)));
+        return row;
+    }
+
+    public List<Map<String, Object>> apply(List<T> items) {
+        List<Map<String, Object>> rows = new ArrayList<>(items.size());
+        items.forEach(item -> rows.add(apply(item)));
+        return rows;
+    }
+}
@@ -0,0 +1,98 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact page envelope: the content plus its position, without the
+ * pageable and sort blocks of {@link org.springframework.data.domain.PageImpl}.
+ * The totals are left out when the page was read as a slice, without a count,
+ * and the facets unless they were requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageDTO<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content = new ArrayList<>();
+    private int page;
+    private int size;
+    private boolean last;
+    private Long totalElements;
+    private Integer totalPages;
+    private List<CategoryFacetDTO> facets;
+
+    public PageDTO() {
+    }
+
+    public PageDTO(Slice<?> slice, List<T> content) {
+        this.content = content;
+        this.page = slice.getNumber();
+        this.size = slice.getSize();
+        this.last = slice.isLast();
+        if (slice instanceof Page) {
+            this.totalElements = ((Page<?>) slice).getTotalElements();
+            this.totalPages = ((Page<?>) slice).getTotalPages();
+        }
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    public void setLast(boolean last) {
+        this.last = last;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public List<CategoryFacetDTO> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(List<CategoryFacetDTO> facets) {
+        this.facets = facets;
+    }
+}
@@ -10,12 +10,21 @@ import javax.validation.constraints.Size;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 public class ProductDTO implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Properties selectable with the fields parameter of the listing.
+     */
+    public static final Map<String, Function<ProductDTO, Object>> FIELDS = fields();
+
     private Long id;
     @Size(max = 60, message = "Deve ter no máximo 60 caracteres")
     @NotBlank(message = "Campo obrigatório")
@@ -41,6 +50,13 @@ public class ProductDTO implements Serializable {
         this.date = date;
     }
 
+    /**
+     * Listing row without the description, which is left null.
+     */
+    public ProductDTO(Long id, String name, Double price, String imgUrl, Instant date) {
+        this(id, name, null, price, imgUrl, date);
+    }
+
     public ProductDTO(Product entity) {
         this.id = entity.getId();
         this.name = entity.getName();
@@ -110,4 +126,16 @@ public class ProductDTO implements Serializable {
     public void setCategories(List<CategoryDTO> categories) {
         this.categories = categories;
     }
+
+    private static Map<String, Function<ProductDTO, Object>> fields() {
+        Map<String, Function<ProductDTO, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", ProductDTO::getId);
+        fields.put("name", ProductDTO::getName);
+        fields.put("description", ProductDTO::getDescription);
+        fields.put("price", ProductDTO::getPrice);
+        fields.put("imgUrl", ProductDTO::getImgUrl);
+        fields.put("date", ProductDTO::getDate);
+        fields.put("categories", ProductDTO::getCategories);
+        return Collections.unmodifiableMap(fields);
+    }
 }
@@ -0,0 +1,95 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductFilterDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String MODE_ANY = "any";
+    public static final String MODE_ALL = "all";
+
+    private Long categoryId = 0L;
+    private List<Long> categoryIds = new ArrayList<>();
+    private String mode = MODE_ANY;
+    private String name = "";
+    private Double minPrice;
+    private Double maxPrice;
+    private Instant from;
+    private Instant to;
+
+    public ProductFilterDTO() {
+    }
+
+    public ProductFilterDTO(List<Long> categoryIds, String mode, String name) {
+        setCategoryIds(categoryIds);
+        setMode(mode);
+        setName(name);
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId == null ? 0L : categoryId;
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(List<Long> categoryIds) {
+        this.categoryIds = categoryIds == null ? new ArrayList<>() : categoryIds;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode == null ? MODE_ANY : mode;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name == null ? "" : name.trim();
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+}
@@ -4,10 +4,20 @@ import com.devsuperior.dscatalog.entities.User;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 public class UserDTO {
+
+    /**
+     * Properties selectable with the fields parameter of the listing.
+     */
+    public static final Map<String, Function<UserDTO, Object>> FIELDS = fields();
+
     private Long id;
     @NotBlank(message = "Campo obrigatório")
     private String firstName;
@@ -69,4 +79,14 @@ public class UserDTO {
     public Set<RoleDTO> getRoles() {
         return roles;
     }
+
+    private static Map<String, Function<UserDTO, Object>> fields() {
+        Map<String, Function<UserDTO, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", UserDTO::getId);
+        fields.put("firstName", UserDTO::getFirstName);
+        fields.put("lastName", UserDTO::getLastName);
+        fields.put("email", UserDTO::getEmail);
+        fields.put("roles", UserDTO::getRoles);
+        return Collections.unmodifiableMap(fields);
+    }
 }
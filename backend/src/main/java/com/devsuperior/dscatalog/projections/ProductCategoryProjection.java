@@ -0,0 +1,9 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface ProductCategoryProjection {
+    Long getProductId();
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,21 @@
+package com.devsuperior.dscatalog.projections;
+
+import java.time.Instant;
+
+public interface ProductExportProjection {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Double getPrice();
+
+    String getImgUrl();
+
+    Instant getDate();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
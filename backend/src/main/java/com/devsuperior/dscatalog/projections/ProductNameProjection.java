@@ -0,0 +1,7 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface ProductNameProjection {
+    Long getId();
+
+    String getName();
+}
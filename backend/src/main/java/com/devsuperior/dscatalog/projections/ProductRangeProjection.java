@@ -0,0 +1,11 @@
+package com.devsuperior.dscatalog.projections;
+
+import java.time.Instant;
+
+public interface ProductRangeProjection {
+    Long getId();
+
+    Double getPrice();
+
+    Instant getDate();
+}
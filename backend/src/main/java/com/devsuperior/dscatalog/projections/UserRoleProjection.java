@@ -0,0 +1,9 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface UserRoleProjection {
+    Long getUserId();
+
+    Long getId();
+
+    String getAuthority();
+}
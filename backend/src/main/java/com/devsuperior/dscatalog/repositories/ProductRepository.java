@@ -1,23 +1,115 @@
 package com.devsuperior.dscatalog.repositories;
 
-import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.entities.Product;
-import org.springframework.data.domain.Page;
+import com.devsuperior.dscatalog.projections.CategoryCountProjection;
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.projections.ProductExportProjection;
+import com.devsuperior.dscatalog.projections.ProductNameProjection;
+import com.devsuperior.dscatalog.projections.ProductRangeProjection;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Query("SELECT DISTINCT obj FROM Product obj INNER JOIN obj.categories cats " +
-            "WHERE (COALESCE( :categories ) IS NULL OR cats IN :categories ) AND " +
-            "( :name = '' OR LOWER(obj.name) LIKE LOWER(CONCAT('%', :name , '%')))")
-    Page<Product> find(Pageable pageable, List<Category> categories, String name);
+    /**
+     * Price and date bounds only apply when their flag is set, so that they
+     * are never bound as null.
+     */
+    String RANGES = "( :pricesFiltered = FALSE OR obj.price BETWEEN :minPrice AND :maxPrice ) AND " +
+            "( :datesFiltered = FALSE OR obj.date BETWEEN :from AND :to )";
+
+    /**
+     * Shared WHERE clause of the product listing. A categoryCount of zero keeps
+     * products in any of the categoryIds; otherwise they must be in all of them.
+     */
+    String FILTER = "WHERE obj.id IN (SELECT p.id FROM Product p INNER JOIN p.categories cats " +
+            "WHERE COALESCE( :categoryIds ) IS NULL OR cats.id IN :categoryIds ) AND " +
+            "( :categoryCount = 0L OR obj.id IN (SELECT p.id FROM Product p INNER JOIN p.categories cats " +
+            "WHERE cats.id IN :categoryIds GROUP BY p.id HAVING COUNT(cats.id) = :categoryCount )) AND " +
+            "(COALESCE( :ids ) IS NULL OR obj.id IN :ids ) AND " +
+            "( :name = '' OR LOWER(obj.name) LIKE LOWER(CONCAT('%', :name , '%'))) AND " +
+            RANGES;
+
+    @Query("SELECT new com.devsuperior.dscatalog.dto.ProductDTO(obj.id, obj.name, obj.description, obj.price, " +
+            "obj.imgUrl, obj.date) FROM Product obj " + FILTER)
+    Slice<ProductDTO> find(Pageable pageable, List<Long> categoryIds, long categoryCount, Collection<Long> ids,
+                           String name, boolean pricesFiltered, double minPrice, double maxPrice,
+                           boolean datesFiltered, Instant from, Instant to);
+
+    /**
+     * Listing row without the TEXT description, for field selections that
+     * leave it out.
+     */
+    String SUMMARY = "SELECT new com.devsuperior.dscatalog.dto.ProductDTO(obj.id, obj.name, obj.price, " +
+            "obj.imgUrl, obj.date) FROM Product obj ";
+
+    @Query(SUMMARY + FILTER)
+    Slice<ProductDTO> findSummaries(Pageable pageable, List<Long> categoryIds, long categoryCount,
+                                    Collection<Long> ids, String name, boolean pricesFiltered, double minPrice,
+                                    double maxPrice, boolean datesFiltered, Instant from, Instant to);
+
+    @Query("SELECT COUNT(obj) FROM Product obj " + FILTER)
+    long countFiltered(List<Long> categoryIds, long categoryCount, Collection<Long> ids, String name,
+                       boolean pricesFiltered, double minPrice, double maxPrice,
+                       boolean datesFiltered, Instant from, Instant to);
+
+    @Query("SELECT new com.devsuperior.dscatalog.dto.ProductDTO(obj.id, obj.name, obj.description, obj.price, " +
+            "obj.imgUrl, obj.date) FROM Product obj " + FILTER + " AND " +
+            "(obj.name > :afterName OR (obj.name = :afterName AND obj.id > :afterId)) " +
+            "ORDER BY obj.name, obj.id")
+    List<ProductDTO> findAfter(Pageable pageable, List<Long> categoryIds, long categoryCount, Collection<Long> ids,
+                               String name, boolean pricesFiltered, double minPrice, double maxPrice,
+                               boolean datesFiltered, Instant from, Instant to, String afterName, Long afterId);
+
+    @Query("SELECT new com.devsuperior.dscatalog.dto.ProductDTO(obj.id, obj.name, obj.description, obj.price, " +
+            "obj.imgUrl, obj.date) FROM Product obj WHERE obj.id IN :ids")
+    List<ProductDTO> findByIds(Collection<Long> ids);
+
+    @Query(SUMMARY + "WHERE obj.id IN :ids")
+    List<ProductDTO> findSummariesByIds(Collection<Long> ids);
+
+    @Query("SELECT obj.id AS productId, cats.id AS id, cats.name AS name " +
+            "FROM Product obj INNER JOIN obj.categories cats WHERE obj.id IN :productIds")
+    List<ProductCategoryProjection> findCategories(Collection<Long> productIds);
+
+    @Query("SELECT obj.id AS productId, cats.id AS id, cats.name AS name " +
+            "FROM Product obj INNER JOIN obj.categories cats")
+    List<ProductCategoryProjection> findAllCategories();
+
+    @Query("SELECT cats.id AS id, COUNT(obj) AS total FROM Product obj INNER JOIN obj.categories cats " +
+            "WHERE ( :name = '' OR LOWER(obj.name) LIKE LOWER(CONCAT('%', :name , '%'))) AND " + RANGES +
+            " GROUP BY cats.id")
+    List<CategoryCountProjection> countByCategory(String name, boolean pricesFiltered, double minPrice,
+                                                  double maxPrice, boolean datesFiltered, Instant from, Instant to);
+
+    @Query("SELECT obj.id AS id, obj.price AS price, obj.date AS date FROM Product obj")
+    List<ProductRangeProjection> findAllRanges();
+
+    /**
+     * Forward-only cursor over every product and category pair, ordered so
+     * that the rows of a product are adjacent.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT obj.id AS id, obj.name AS name, obj.description AS description, obj.price AS price, " +
+            "obj.imgUrl AS imgUrl, obj.date AS date, cats.id AS categoryId, cats.name AS categoryName " +
+            "FROM Product obj LEFT JOIN obj.categories cats ORDER BY obj.id, cats.id")
+    Stream<ProductExportProjection> streamAll();
 
-    @Query("SELECT obj FROM Product obj JOIN FETCH obj.categories WHERE obj IN :products")
-    List<Product> findProductsWithCategories(List<Product> products);
+    @Query("SELECT obj.id AS id, obj.name AS name FROM Product obj")
+    List<ProductNameProjection> findAllNames();
 }
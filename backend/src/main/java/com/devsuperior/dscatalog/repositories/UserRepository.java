@@ -1,12 +1,38 @@
 package com.devsuperior.dscatalog.repositories;
 
-import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.projections.UserRoleProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    @Query("SELECT obj.email FROM User obj")
+    List<String> findAllEmails();
+
+    /**
+     * Users of the page without their roles, which are EAGER on the entity
+     * and would otherwise be loaded with one query per user.
+     */
+    @Query("SELECT new com.devsuperior.dscatalog.dto.UserDTO(obj.id, obj.firstName, obj.lastName, obj.email) " +
+            "FROM User obj")
+    Slice<UserDTO> findAllBy(Pageable pageable);
+
+    @Query("SELECT obj.id AS userId, roles.id AS id, roles.authority AS authority " +
+            "FROM User obj INNER JOIN obj.roles roles WHERE obj.id IN :userIds")
+    List<UserRoleProjection> findRoles(Collection<Long> userIds);
 }
@@ -1,15 +1,27 @@
 package com.devsuperior.dscatalog.resources;
 
+import com.devsuperior.dscatalog.components.CategoryRegistry;
+import com.devsuperior.dscatalog.components.ETags;
+import com.devsuperior.dscatalog.components.ServiceExecutor;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.FieldSelection;
+import com.devsuperior.dscatalog.dto.PageDTO;
 import com.devsuperior.dscatalog.services.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(value = "/categories")
@@ -18,35 +30,80 @@ public class CategoryResource {
     @Autowired
     private CategoryService service;
 
+    @Autowired
+    private CategoryRegistry registry;
+
+    @Autowired
+    private ServiceExecutor executor;
+
     @GetMapping
-    public ResponseEntity<Page<CategoryDTO>> findAll(Pageable pageable) {
-        Page<CategoryDTO> categoriesList = service.findAllPaged(pageable);
-        return ResponseEntity.ok().body(categoriesList);
+    public CompletableFuture<ResponseEntity<Page<CategoryDTO>>> findAll(Pageable pageable, WebRequest request) {
+        String etag = ETags.forAccept(ETags.of(registry.getETag(), pageable, "page"),
+                request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return executor.supply(() -> service.findAllPaged(pageable))
+                .thenApply(categoriesList -> ResponseEntity.ok().body(categoriesList));
+    }
+
+    @GetMapping(params = {"count=false", "!fields"})
+    public CompletableFuture<ResponseEntity<Slice<CategoryDTO>>> findAllSliced(Pageable pageable, WebRequest request) {
+        String etag = ETags.forAccept(ETags.of(registry.getETag(), pageable, "slice"),
+                request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return executor.supply(() -> service.findAllSliced(pageable))
+                .thenApply(categoriesList -> ResponseEntity.ok().body(categoriesList));
+    }
+
+    @GetMapping(params = "fields")
+    public CompletableFuture<ResponseEntity<PageDTO<Map<String, Object>>>> findAllFields(
+            Pageable pageable, @RequestParam(value = "fields") String fields,
+            @RequestParam(value = "count", defaultValue = "true") boolean count, WebRequest request) {
+        FieldSelection<CategoryDTO> selection = FieldSelection.of(fields, CategoryDTO.FIELDS);
+        String etag = ETags.forAccept(ETags.of(registry.getETag(), pageable, "fields", fields, count),
+                request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return executor.supply(() -> {
+            Slice<CategoryDTO> categoriesList = count ? service.findAllPaged(pageable) : service.findAllSliced(pageable);
+            return new PageDTO<>(categoriesList, selection.apply(categoriesList.getContent()));
+        }).thenApply(categoriesPage -> ResponseEntity.ok().body(categoriesPage));
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id) {
-        CategoryDTO category = service.findById(id);
-        return ResponseEntity.ok().body(category);
+    public CompletableFuture<ResponseEntity<CategoryDTO>> findById(@PathVariable Long id, WebRequest request) {
+        Optional<String> etag = registry.getETag(id)
+                .map(value -> ETags.forAccept(value, request.getHeader(HttpHeaders.ACCEPT)));
+        long lastModified = registry.getLastModified(id).map(Instant::toEpochMilli).orElse(-1L);
+        if (etag.isPresent() && request.checkNotModified(etag.get(), lastModified)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return executor.supply(() -> service.findById(id))
+                .thenApply(category -> ResponseEntity.ok().body(category));
     }
 
     @PostMapping
-    public ResponseEntity<CategoryDTO> insert(@RequestBody CategoryDTO dto) {
-        dto = service.insert(dto);
-        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-                .buildAndExpand(dto.getId()).toUri();
-        return ResponseEntity.created(uri).body(dto);
+    public CompletableFuture<ResponseEntity<CategoryDTO>> insert(@RequestBody CategoryDTO dto) {
+        UriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}");
+        return executor.supply(() -> service.insert(dto))
+                .thenApply(created -> ResponseEntity.created(uri.buildAndExpand(created.getId()).toUri()).body(created));
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @RequestBody CategoryDTO dto) {
-        dto = service.update(id, dto);
-        return ResponseEntity.ok().body(dto);
+    public CompletableFuture<ResponseEntity<CategoryDTO>> update(@PathVariable Long id, @RequestBody CategoryDTO dto) {
+        return executor.supply(() -> service.update(id, dto))
+                .thenApply(updated -> ResponseEntity.ok().body(updated));
     }
 
     @DeleteMapping(value = "/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return executor.supply(() -> {
+            service.delete(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
     }
 }
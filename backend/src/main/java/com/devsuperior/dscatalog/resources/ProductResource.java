@@ -1,16 +1,40 @@
 package com.devsuperior.dscatalog.resources;
 
+import com.devsuperior.dscatalog.components.ETags;
+import com.devsuperior.dscatalog.components.ProductETagCache;
+import com.devsuperior.dscatalog.components.ServiceExecutor;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.FacetedPageDTO;
+import com.devsuperior.dscatalog.dto.FieldSelection;
+import com.devsuperior.dscatalog.dto.PageDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductFilterDTO;
+import com.devsuperior.dscatalog.dto.ProductImportDTO;
+import com.devsuperior.dscatalog.services.ProductExportService;
+import com.devsuperior.dscatalog.services.ProductImportService;
 import com.devsuperior.dscatalog.services.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -19,38 +43,146 @@ public class ProductResource {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductETagCache etags;
+
+    @Autowired
+    private ServiceExecutor executor;
+
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> findAll(
-            Pageable pageable,
-            @RequestParam(value = "categoryId", defaultValue = "0") Long categoryId,
-            @RequestParam(value = "name", defaultValue = "") String name) {
-        Page<ProductDTO> productsList = service.findAllPaged(pageable, categoryId, name.trim());
-        return ResponseEntity.ok().body(productsList);
+    public CompletableFuture<ResponseEntity<Page<ProductDTO>>> findAll(Pageable pageable, ProductFilterDTO filter) {
+        return executor.supply(() -> service.findAllPaged(pageable, filter))
+                .thenApply(productsList -> ResponseEntity.ok().body(productsList));
+    }
+
+    @GetMapping(params = {"facets=true", "!fields"})
+    public CompletableFuture<ResponseEntity<FacetedPageDTO<ProductDTO>>> findAllFaceted(Pageable pageable,
+                                                                                        ProductFilterDTO filter) {
+        return executor.supply(() -> service.findAllFaceted(pageable, filter))
+                .thenApply(productsList -> ResponseEntity.ok().body(productsList));
+    }
+
+    /**
+     * Listing without totals. Facets need the counts anyway, so with
+     * facets=true the faceted page is returned instead.
+     */
+    @GetMapping(params = {"count=false", "facets!=true", "!fields"})
+    public CompletableFuture<ResponseEntity<Slice<ProductDTO>>> findAllSliced(Pageable pageable, ProductFilterDTO filter) {
+        return executor.supply(() -> service.findAllSliced(pageable, filter))
+                .thenApply(productsList -> ResponseEntity.ok().body(productsList));
+    }
+
+    /**
+     * Listing in the compact page envelope, each row holding only the comma
+     * separated fields. With count=false the totals are left out, unless
+     * facets=true asks for the facets, which need the counts anyway.
+     */
+    @GetMapping(params = "fields")
+    public CompletableFuture<ResponseEntity<PageDTO<Map<String, Object>>>> findAllFields(
+            Pageable pageable, ProductFilterDTO filter, @RequestParam(value = "fields") String fields,
+            @RequestParam(value = "count", defaultValue = "true") boolean count,
+            @RequestParam(value = "facets", defaultValue = "false") boolean facets) {
+        FieldSelection<ProductDTO> selection = FieldSelection.of(fields, ProductDTO.FIELDS);
+        return executor.supply(() -> {
+            if (facets) {
+                FacetedPageDTO<ProductDTO> productsList = service.findAllFaceted(pageable, filter, selection);
+                PageDTO<Map<String, Object>> productsPage
+                        = new PageDTO<>(productsList, selection.apply(productsList.getContent()));
+                productsPage.setFacets(productsList.getFacets());
+                return productsPage;
+            }
+            Slice<ProductDTO> productsList = count ? service.findAllPaged(pageable, filter, selection)
+                    : service.findAllSliced(pageable, filter, selection);
+            return new PageDTO<>(productsList, selection.apply(productsList.getContent()));
+        }).thenApply(productsPage -> ResponseEntity.ok().body(productsPage));
+    }
+
+    @GetMapping(value = "/cursor")
+    public CompletableFuture<ResponseEntity<CursorPageDTO<ProductDTO>>> findAllAfter(
+            @RequestParam(value = "after", defaultValue = "") String after,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            ProductFilterDTO filter) {
+        return executor.supply(() -> service.findAllAfter(after, size, filter))
+                .thenApply(productsList -> ResponseEntity.ok().body(productsList));
+    }
+
+    @GetMapping(value = "/export")
+    public void export(@RequestParam(value = "format", defaultValue = ProductExportService.NDJSON) String format,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(exportService.mediaTypeOf(format).toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + format + "\"");
+        exportService.export(format, response.getOutputStream());
+    }
+
+    @GetMapping(value = "/imports")
+    public ResponseEntity<List<ProductImportDTO>> findAllImports() {
+        List<ProductImportDTO> imports = importService.findAll();
+        return ResponseEntity.ok().body(imports);
+    }
+
+    @GetMapping(value = "/imports/{id}")
+    public ResponseEntity<ProductImportDTO> findImportById(@PathVariable Long id) {
+        ProductImportDTO dto = importService.findById(id);
+        return ResponseEntity.ok().body(dto);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
-        ProductDTO Product = service.findById(id);
-        return ResponseEntity.ok().body(Product);
+    public CompletableFuture<ResponseEntity<ProductDTO>> findById(@PathVariable Long id, WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        Optional<String> etag = etags.find(id).map(value -> ETags.forAccept(value, accept));
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long stamp = etags.stamp();
+        return executor.supply(() -> service.findById(id)).thenApply(product -> {
+            if (request.checkNotModified(ETags.forAccept(etags.put(product, stamp), accept))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(product);
+        });
     }
 
     @PostMapping
-    public ResponseEntity<ProductDTO> insert(@Valid @RequestBody ProductDTO dto) {
-        dto = service.insert(dto);
-        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+    public CompletableFuture<ResponseEntity<ProductDTO>> insert(@Valid @RequestBody ProductDTO dto) {
+        UriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}");
+        return executor.supply(() -> service.insert(dto))
+                .thenApply(created -> ResponseEntity.created(uri.buildAndExpand(created.getId()).toUri()).body(created));
+    }
+
+    @PostMapping(value = "/batch")
+    public CompletableFuture<ResponseEntity<BatchResultDTO>> insertAll(@RequestBody List<ProductDTO> dtos) {
+        return executor.supply(() -> service.insertAll(dtos))
+                .thenApply(result -> ResponseEntity.ok().body(result));
+    }
+
+    @PostMapping(value = "/imports")
+    public ResponseEntity<ProductImportDTO> importAll(
+            @RequestParam(value = "format", defaultValue = ProductExportService.NDJSON) String format,
+            HttpServletRequest request) throws IOException {
+        ProductImportDTO dto = importService.importAll(format, request.getInputStream());
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().replaceQuery(null).path("/{id}")
                 .buildAndExpand(dto.getId()).toUri();
         return ResponseEntity.created(uri).body(dto);
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
-        dto = service.update(id, dto);
-        return ResponseEntity.ok().body(dto);
+    public CompletableFuture<ResponseEntity<ProductDTO>> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
+        return executor.supply(() -> service.update(id, dto))
+                .thenApply(updated -> ResponseEntity.ok().body(updated));
     }
 
     @DeleteMapping(value = "/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return executor.supply(() -> {
+            service.delete(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
     }
 }
@@ -1,5 +1,8 @@
 package com.devsuperior.dscatalog.resources;
 
+import com.devsuperior.dscatalog.components.ServiceExecutor;
+import com.devsuperior.dscatalog.dto.FieldSelection;
+import com.devsuperior.dscatalog.dto.PageDTO;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
 import com.devsuperior.dscatalog.dto.UserUpdateDTO;
@@ -7,12 +10,15 @@ import com.devsuperior.dscatalog.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
-import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(value = "/users")
@@ -21,35 +27,58 @@ public class UserResource {
     @Autowired
     private UserService service;
 
+    @Autowired
+    private ServiceExecutor executor;
+
     @GetMapping
-    public ResponseEntity<Page<UserDTO>> findAll(Pageable pageable) {
-        Page<UserDTO> UsersList = service.findAllPaged(pageable);
-        return ResponseEntity.ok().body(UsersList);
+    public CompletableFuture<ResponseEntity<Page<UserDTO>>> findAll(Pageable pageable) {
+        return executor.supply(() -> service.findAllPaged(pageable))
+                .thenApply(usersList -> ResponseEntity.ok().body(usersList));
+    }
+
+    @GetMapping(params = {"count=false", "!fields"})
+    public CompletableFuture<ResponseEntity<Slice<UserDTO>>> findAllSliced(Pageable pageable) {
+        return executor.supply(() -> service.findAllSliced(pageable))
+                .thenApply(usersList -> ResponseEntity.ok().body(usersList));
+    }
+
+    @GetMapping(params = "fields")
+    public CompletableFuture<ResponseEntity<PageDTO<Map<String, Object>>>> findAllFields(
+            Pageable pageable, @RequestParam(value = "fields") String fields,
+            @RequestParam(value = "count", defaultValue = "true") boolean count) {
+        FieldSelection<UserDTO> selection = FieldSelection.of(fields, UserDTO.FIELDS);
+        return executor.supply(() -> {
+            Slice<UserDTO> usersList = count ? service.findAllPaged(pageable, selection)
+                    : service.findAllSliced(pageable, selection);
+            return new PageDTO<>(usersList, selection.apply(usersList.getContent()));
+        }).thenApply(usersPage -> ResponseEntity.ok().body(usersPage));
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<UserDTO> findById(@PathVariable Long id) {
-        UserDTO user = service.findById(id);
-        return ResponseEntity.ok().body(user);
+    public CompletableFuture<ResponseEntity<UserDTO>> findById(@PathVariable Long id) {
+        return executor.supply(() -> service.findById(id))
+                .thenApply(user -> ResponseEntity.ok().body(user));
     }
 
     @PostMapping
-    public ResponseEntity<UserDTO> insert(@Valid @RequestBody UserInsertDTO dto) {
-        UserDTO responseDTO = service.insert(dto);
-        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-                .buildAndExpand(responseDTO.getId()).toUri();
-        return ResponseEntity.created(uri).body(responseDTO);
+    public CompletableFuture<ResponseEntity<UserDTO>> insert(@Valid @RequestBody UserInsertDTO dto) {
+        UriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}");
+        return executor.supply(() -> service.insert(dto))
+                .thenApply(responseDTO -> ResponseEntity.created(uri.buildAndExpand(responseDTO.getId()).toUri())
+                        .body(responseDTO));
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<UserDTO> update(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO dto) {
-        UserDTO responseDto = service.update(id, dto);
-        return ResponseEntity.ok().body(responseDto);
+    public CompletableFuture<ResponseEntity<UserDTO>> update(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO dto) {
+        return executor.supply(() -> service.update(id, dto))
+                .thenApply(responseDto -> ResponseEntity.ok().body(responseDto));
     }
 
     @DeleteMapping(value = "/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        service.delete(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return executor.supply(() -> {
+            service.delete(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
     }
 }
@@ -0,0 +1,247 @@
+package com.devsuperior.dscatalog.seed;
+
+import com.devsuperior.dscatalog.components.CategoryRegistry;
+import com.devsuperior.dscatalog.components.EmailBloomFilter;
+import com.devsuperior.dscatalog.components.PageCountCache;
+import com.devsuperior.dscatalog.components.ProductCategoryIndex;
+import com.devsuperior.dscatalog.components.ProductNameIndex;
+import com.devsuperior.dscatalog.components.ProductRangeIndex;
+import com.devsuperior.dscatalog.components.ResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Tops the database up to seed.categories categories, seed.products products
+ * and seed.users users when the application starts with the seed profile.
+ * Rows are written with batched JDBC inserts, seed.batch-size rows per
+ * transaction, bypassing JPA. Products get one to
+ * seed.max-categories-per-product categories drawn from a Zipf distribution
+ * over the categories in id order, so the first categories hold most of the
+ * catalog. Generation is deterministic for a given seed.random-seed and a
+ * restart only inserts what is missing.
+ * <p>
+ * The seed profile runs without a web server, so the process seeds and
+ * exits; start it again without the profile to serve the catalog. For an
+ * in-memory database, set SEED_WEB_APPLICATION_TYPE=servlet to seed and
+ * serve from one process. Generation runs once every singleton is created,
+ * before the web server starts, and the in-memory indexes are reloaded
+ * afterwards, so no request sees a half-seeded catalog.
+ */
+@Component
+@Profile("seed")
+public class CatalogGenerator implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogGenerator.class);
+
+    // BCrypt of "123456", the password of the users in import.sql
+    private static final String PASSWORD = "$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG";
+    private static final int PROGRESS_INTERVAL = 100000;
+
+    @Value("${seed.categories}")
+    private int categories;
+
+    @Value("${seed.products}")
+    private long products;
+
+    @Value("${seed.users}")
+    private long users;
+
+    @Value("${seed.max-categories-per-product}")
+    private int maxCategoriesPerProduct;
+
+    @Value("${seed.zipf-exponent}")
+    private double zipfExponent;
+
+    @Value("${seed.description-min-length}")
+    private int descriptionMinLength;
+
+    @Value("${seed.description-max-length}")
+    private int descriptionMaxLength;
+
+    @Value("${seed.admin-every}")
+    private int adminEvery;
+
+    @Value("${seed.batch-size}")
+    private int batchSize;
+
+    @Value("${seed.random-seed}")
+    private long randomSeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private ProductCategoryIndex productCategoryIndex;
+
+    @Autowired
+    private ProductRangeIndex productRangeIndex;
+
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+
+    @Autowired
+    private PageCountCache countCache;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Instant start = Instant.now();
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        insertCategories(random.split());
+        insertProducts(random.split());
+        insertUsers(random.split());
+
+        categoryRegistry.reload();
+        productNameIndex.load();
+        productCategoryIndex.load();
+        productRangeIndex.load();
+        emailBloomFilter.load();
+        countCache.invalidate("");
+        responseCache.clear();
+        logger.info("Seed finished in {}", Duration.between(start, Instant.now()));
+    }
+
+    private void insertCategories(SplittableRandom random) {
+        long missing = categories - count("tb_category");
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (long i = 0; i < missing; i++) {
+            rows.add(new Object[] {PortugueseText.categoryName(random), now});
+        }
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("INSERT INTO tb_category (name, created_at) VALUES (?, ?)", rows));
+        }
+        logger.info("Inserted {} categories", rows.size());
+    }
+
+    private void insertProducts(SplittableRandom random) {
+        long missing = products - count("tb_product");
+        if (missing <= 0) {
+            return;
+        }
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM tb_category ORDER BY id", Long.class);
+        ZipfDistribution zipf = new ZipfDistribution(categoryIds.size(), zipfExponent);
+        long nextId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class) + 1;
+        // reserve the ids about to be written before writing them
+        jdbcTemplate.execute("ALTER SEQUENCE tb_product_seq RESTART WITH " + (nextId + missing));
+        long until = Instant.now().getEpochSecond();
+        long from = until - Duration.ofDays(3 * 365).getSeconds();
+
+        List<Object[]> productRows = new ArrayList<>(batchSize);
+        List<Object[]> categoryRows = new ArrayList<>(batchSize * maxCategoriesPerProduct);
+        for (long i = 0; i < missing; i++) {
+            long id = nextId++;
+            double price = Math.max(1.0, Math.round(Math.exp(5.0 + 1.2 * gaussian(random)) * 100.0) / 100.0);
+            productRows.add(new Object[] {id, PortugueseText.productName(random),
+                    PortugueseText.description(random, descriptionMinLength, descriptionMaxLength), price,
+                    "https://img.exemplo.com.br/produtos/" + id + ".jpg",
+                    Timestamp.from(Instant.ofEpochSecond(random.nextLong(from, until)))});
+            int productCategories = 1 + random.nextInt(Math.min(maxCategoriesPerProduct, categoryIds.size()));
+            long[] chosen = new long[productCategories];
+            for (int c = 0; c < productCategories; c++) {
+                long categoryId;
+                do {
+                    categoryId = categoryIds.get(zipf.sample(random));
+                } while (contains(chosen, c, categoryId));
+                chosen[c] = categoryId;
+                categoryRows.add(new Object[] {id, categoryId});
+            }
+            if (productRows.size() == batchSize || i == missing - 1) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate("INSERT INTO tb_product (id, name, description, price, img_url, date) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)", productRows);
+                    jdbcTemplate.batchUpdate("INSERT INTO tb_product_category (product_id, category_id) "
+                            + "VALUES (?, ?)", categoryRows);
+                });
+                progress("products", i + 1, productRows.size(), missing);
+                productRows.clear();
+                categoryRows.clear();
+            }
+        }
+    }
+
+    private void insertUsers(SplittableRandom random) {
+        long existing = count("tb_user");
+        long missing = users - existing;
+        if (missing <= 0) {
+            return;
+        }
+        long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_user", Long.class);
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (long i = 0; i < missing; i++) {
+            String firstName = PortugueseText.firstName(random);
+            String lastName = PortugueseText.lastName(random);
+            String email = ascii(firstName + "." + lastName).toLowerCase(Locale.ROOT)
+                    + "." + (existing + i + 1) + "@exemplo.com.br";
+            rows.add(new Object[] {firstName, lastName, email, PASSWORD});
+            if (rows.size() == batchSize || i == missing - 1) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        "INSERT INTO tb_user (first_name, last_name, email, password) VALUES (?, ?, ?, ?)", rows));
+                progress("users", i + 1, rows.size(), missing);
+                rows.clear();
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO tb_user_role (user_id, role_id) SELECT u.id, r.id FROM tb_user u, tb_role r "
+                    + "WHERE u.id > ? AND r.authority = 'ROLE_OPERATOR'", lastId);
+            jdbcTemplate.update("INSERT INTO tb_user_role (user_id, role_id) SELECT u.id, r.id FROM tb_user u, tb_role r "
+                    + "WHERE u.id > ? AND MOD(u.id, ?) = 0 AND r.authority = 'ROLE_ADMIN'", lastId, adminEvery);
+        });
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static void progress(String what, long done, int batch, long total) {
+        if ((done - batch) / PROGRESS_INTERVAL != done / PROGRESS_INTERVAL || done == total) {
+            logger.info("Inserted {}/{} {}", done, total, what);
+        }
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Box-Muller, since SplittableRandom has no nextGaussian
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2.0 * Math.log(1.0 - random.nextDouble())) * Math.cos(2.0 * Math.PI * random.nextDouble());
+    }
+
+    private static String ascii(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+}
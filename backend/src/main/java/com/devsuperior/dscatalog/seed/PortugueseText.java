@@ -0,0 +1,97 @@
+package com.devsuperior.dscatalog.seed;
+
+import java.util.SplittableRandom;
+
+/**
+ * Product names, descriptions and person names built from Brazilian
+ * Portuguese vocabulary, accents included, so generated rows exercise the
+ * same collation and multi-byte paths as real catalog data.
+ */
+public class PortugueseText {
+
+    private static final String[] NOUNS = {"Cadeira", "Mesa", "Notebook", "Câmera", "Fone", "Relógio", "Luminária",
+            "Mochila", "Panela", "Ventilador", "Geladeira", "Televisão", "Impressora", "Bicicleta", "Violão",
+            "Livro", "Caderno", "Teclado", "Monitor", "Colchão", "Travesseiro", "Tênis", "Jaqueta", "Óculos",
+            "Cafeteira", "Liquidificador", "Aspirador", "Micro-ondas", "Smartphone", "Tablet", "Caixa de Som"};
+    private static final String[] ADJECTIVES = {"Ergonômica", "Portátil", "Elétrico", "Automático", "Clássico",
+            "Econômico", "Confortável", "Resistente", "Inteligente", "Compacto", "Profissional", "Básico",
+            "Térmico", "Sem Fio", "Dobrável", "Ajustável", "Prático", "Luxuoso", "Antiaderente", "Silencioso"};
+    private static final String[] QUALIFIERS = {"Azul", "Preto", "Branco", "Cinza", "Vermelho", "Edição Limitada",
+            "Coleção Verão", "Linha Premium", "Versão 2", "Tamanho Único", "Kit com 2", "Bivolt", "127V", "220V",
+            "Série Ouro", "Modelo Médio", "Pequeno", "Grande", "Família", "Infantil"};
+    private static final String[] CATEGORY_WORDS = {"Eletrodomésticos", "Informática", "Esportes", "Papelaria",
+            "Decoração", "Jardinagem", "Cozinha", "Calçados", "Vestuário", "Brinquedos", "Ferramentas", "Música",
+            "Saúde", "Beleza", "Automotivo", "Bebês", "Games", "Áudio", "Iluminação", "Escritório"};
+    private static final String[] CATEGORY_QUALIFIERS = {"e Acessórios", "Infantil", "Profissional", "Importados",
+            "em Promoção", "Sustentável", "Básicos", "de Luxo", "para Casa", "Outlet"};
+    private static final String[] SENTENCES = {
+            "Produto fabricado com materiais de alta qualidade e acabamento impecável.",
+            "Ideal para o dia a dia, oferece praticidade e conforto em qualquer situação.",
+            "Possui garantia de doze meses contra defeitos de fabricação.",
+            "A embalagem é reciclável e o manual está disponível em português.",
+            "Design moderno que combina com ambientes clássicos e contemporâneos.",
+            "Fácil de limpar, não acumula poeira e dispensa manutenção frequente.",
+            "Testado em laboratório para garantir segurança e durabilidade.",
+            "Consumo de energia reduzido, com selo de eficiência classe A.",
+            "Acompanha cabo, suporte de fixação e guia rápido de instalação.",
+            "Leve e resistente, pode ser transportado sem esforço para qualquer cômodo.",
+            "Atenção: as cores podem variar levemente conforme a iluminação da foto.",
+            "Não é necessário montar; basta retirar da caixa e começar a usar.",
+            "Avaliado com nota máxima por milhares de clientes em todo o Brasil.",
+            "Função de desligamento automático evita acidentes e economiza bateria."};
+    private static final String[] FIRST_NAMES = {"João", "Maria", "José", "Ana", "Antônio", "Francisca", "Lúcia",
+            "Márcio", "Conceição", "Sebastião", "Letícia", "Vinícius", "Fábio", "Débora", "Júlia", "André",
+            "Cecília", "Inês", "Luís", "Mônica"};
+    private static final String[] LAST_NAMES = {"Silva", "Santos", "Oliveira", "Souza", "Conceição", "Araújo",
+            "Gonçalves", "Magalhães", "Guimarães", "Brandão", "Simões", "Assunção", "Estêvão", "Patrício",
+            "Falcão", "Damião", "Romão", "Galvão", "Leão", "Pereira"};
+
+    private PortugueseText() {
+    }
+
+    /**
+     * Two to six words, roughly 15 to 70 characters.
+     */
+    public static String productName(SplittableRandom random) {
+        StringBuilder name = new StringBuilder(pick(NOUNS, random));
+        name.append(' ').append(pick(ADJECTIVES, random));
+        int qualifiers = random.nextInt(5);
+        for (int i = 0; i < qualifiers; i++) {
+            name.append(' ').append(pick(QUALIFIERS, random));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Whole sentences up to a length between minLength and maxLength, skewed
+     * toward the short end like real listings.
+     */
+    public static String description(SplittableRandom random, int minLength, int maxLength) {
+        double skew = random.nextDouble();
+        int target = minLength + (int) (skew * skew * (maxLength - minLength));
+        StringBuilder description = new StringBuilder(target + 80);
+        do {
+            if (description.length() > 0) {
+                description.append(' ');
+            }
+            description.append(pick(SENTENCES, random));
+        } while (description.length() < target);
+        return description.toString();
+    }
+
+    public static String categoryName(SplittableRandom random) {
+        return pick(CATEGORY_WORDS, random) + " " + pick(CATEGORY_QUALIFIERS, random);
+    }
+
+    public static String firstName(SplittableRandom random) {
+        return pick(FIRST_NAMES, random);
+    }
+
+    public static String lastName(SplittableRandom random) {
+        return pick(LAST_NAMES, random);
+    }
+
+    private static String pick(String[] words, SplittableRandom random) {
+        return words[random.nextInt(words.length)];
+    }
+}
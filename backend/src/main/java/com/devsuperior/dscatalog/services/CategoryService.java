@@ -1,5 +1,9 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.components.CategoryRegistry;
+import com.devsuperior.dscatalog.components.PageCountCache;
+import com.devsuperior.dscatalog.components.ProductETagCache;
+import com.devsuperior.dscatalog.components.ResponseCache;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
@@ -9,31 +13,61 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class CategoryService {
 
+    private static final String COUNT_KEY = "categories";
+
     @Autowired
     private CategoryRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private PageCountCache countCache;
+
+    @Autowired
+    private CategoryRegistry registry;
+
+    @Autowired
+    private ProductETagCache productETags;
+
+    @Autowired
+    private ResponseCache responseCache;
+
     public Page<CategoryDTO> findAllPaged(Pageable pageable) {
-        Page<Category> categoriesList = repository.findAll(pageable);
+        Optional<List<CategoryDTO>> snapshot = registry.findAll(pageable.getSort());
+        if (snapshot.isPresent()) {
+            List<CategoryDTO> categories = snapshot.get();
+            return new PageImpl<>(pageOf(categories, pageable), pageable, categories.size());
+        }
+        Slice<CategoryDTO> categoriesList = findSliceInDatabase(pageable);
+        return PageableExecutionUtils.getPage(categoriesList.getContent(), pageable,
+                () -> countCache.get(COUNT_KEY, repository::count));
+    }
 
-        return categoriesList.map(CategoryDTO::new);
+    public Slice<CategoryDTO> findAllSliced(Pageable pageable) {
+        Optional<List<CategoryDTO>> snapshot = registry.findAll(pageable.getSort());
+        if (snapshot.isPresent()) {
+            List<CategoryDTO> categories = snapshot.get();
+            boolean hasNext = pageable.isPaged() && pageable.getOffset() + pageable.getPageSize() < categories.size();
+            return new SliceImpl<>(pageOf(categories, pageable), pageable, hasNext);
+        }
+        return findSliceInDatabase(pageable);
     }
 
-    @Transactional(readOnly = true)
     public CategoryDTO findById(Long id) {
-        Optional<Category> opCategory = repository.findById(id);
-        Category entity = opCategory.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
-        return new CategoryDTO(entity);
+        return registry.findById(id).orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
     }
 
     @Transactional
@@ -41,6 +75,7 @@ public class CategoryService {
         Category entity = new Category();
         entity.setName(dto.getName());
         entity = repository.save(entity);
+        TransactionCallbacks.afterCommit(this::refresh);
         return new CategoryDTO(entity);
     }
 
@@ -50,6 +85,7 @@ public class CategoryService {
             Category entity = repository.getOne(id);
             entity.setName(dto.getName());
             entity = repository.save(entity);
+            TransactionCallbacks.afterCommit(this::refresh);
             return new CategoryDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id not found: " + id);
@@ -59,6 +95,7 @@ public class CategoryService {
     public void delete(Long id) {
         try {
             repository.deleteById(id);
+            TransactionCallbacks.afterCommit(this::refresh);
 
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException("Id not found: " + id);
@@ -66,4 +103,25 @@ public class CategoryService {
             throw new DatabaseException("Integrity violation");
         }
     }
+
+    private Slice<CategoryDTO> findSliceInDatabase(Pageable pageable) {
+        Slice<Category> categoriesList = repository.findAllBy(pageable);
+        return categoriesList.map(CategoryDTO::new);
+    }
+
+    private static List<CategoryDTO> pageOf(List<CategoryDTO> categories, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return categories;
+        }
+        int from = (int) Math.min(pageable.getOffset(), categories.size());
+        int to = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), categories.size());
+        return categories.subList(from, to);
+    }
+
+    private void refresh() {
+        registry.reload();
+        countCache.invalidate(COUNT_KEY);
+        productETags.clear();
+        responseCache.clear();
+    }
 }
@@ -0,0 +1,124 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.projections.ProductExportProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog as NDJSON or CSV while reading it from a database
+ * cursor, holding a single product in memory at a time.
+ */
+@Service
+public class ProductExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final MediaType NDJSON_TYPE = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV_TYPE = MediaType.parseMediaType("text/csv");
+    private static final String CSV_HEADER = "id,name,description,price,imgUrl,date,categoryIds";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_ROWS = 1000;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public MediaType mediaTypeOf(String format) {
+        switch (format) {
+            case NDJSON:
+                return NDJSON_TYPE;
+            case CSV:
+                return CSV_TYPE;
+            default:
+                throw new BadRequestException("Format must be " + NDJSON + " or " + CSV);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String format, OutputStream out) throws IOException {
+        mediaTypeOf(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format.equals(CSV)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<ProductExportProjection> rows = repository.streamAll()) {
+            Iterator<ProductExportProjection> iterator = rows.iterator();
+            ProductDTO product = null;
+            long written = 0;
+            while (iterator.hasNext()) {
+                ProductExportProjection row = iterator.next();
+                if (product == null || !product.getId().equals(row.getId())) {
+                    if (product != null) {
+                        write(format, product, writer);
+                        if (++written % FLUSH_ROWS == 0) {
+                            writer.flush();
+                        }
+                    }
+                    product = new ProductDTO(row.getId(), row.getName(), row.getDescription(), row.getPrice(),
+                            row.getImgUrl(), row.getDate());
+                }
+                if (row.getCategoryId() != null) {
+                    product.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+                }
+            }
+            if (product != null) {
+                write(format, product, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void write(String format, ProductDTO product, Writer writer) throws IOException {
+        if (format.equals(NDJSON)) {
+            writer.write(objectMapper.writeValueAsString(product));
+        } else {
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writer.write(csv(product.getName()));
+            writer.write(',');
+            writer.write(csv(product.getDescription()));
+            writer.write(',');
+            writer.write(product.getPrice() == null ? "" : String.valueOf(product.getPrice()));
+            writer.write(',');
+            writer.write(csv(product.getImgUrl()));
+            writer.write(',');
+            writer.write(product.getDate() == null ? "" : product.getDate().toString());
+            writer.write(',');
+            writer.write(product.getCategories().stream()
+                    .map(category -> String.valueOf(category.getId()))
+                    .collect(Collectors.joining(";")));
+        }
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
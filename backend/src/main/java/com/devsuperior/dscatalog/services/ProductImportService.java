@@ -0,0 +1,371 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.BatchErrorDTO;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportDTO;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Loads products from an NDJSON or CSV stream, optionally gzipped, in the
+ * formats written by ProductExportService. The stream is read on the calling
+ * thread one row at a time and every BATCH_SIZE valid rows are committed in
+ * their own transaction, so the upload is only read as fast as it is stored
+ * and a bad row or batch never undoes the batches before it. A row longer
+ * than MAX_ROW_LENGTH characters is never held in memory: an NDJSON line is
+ * skipped and reported, while a CSV record, whose end cannot be trusted
+ * past that point, fails the import.
+ */
+@Service
+public class ProductImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ERRORS = 100;
+    private static final int MAX_IMPORTS = 100;
+    private static final int MAX_ROW_LENGTH = 64 * 1024;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Job> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Job> eldest) {
+            return size() > MAX_IMPORTS;
+        }
+    };
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ProductImportDTO importAll(String format, InputStream in) {
+        if (!format.equals(ProductExportService.NDJSON) && !format.equals(ProductExportService.CSV)) {
+            throw new BadRequestException("Format must be " + ProductExportService.NDJSON + " or "
+                    + ProductExportService.CSV);
+        }
+        Job job = new Job(sequence.incrementAndGet(), format);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+
+        List<ProductDTO> batch = new ArrayList<>(BATCH_SIZE);
+        List<Integer> rows = new ArrayList<>(BATCH_SIZE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(decompress(in), StandardCharsets.UTF_8))) {
+            RowReader rowReader = format.equals(ProductExportService.CSV) ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+            int row = 0;
+            while (true) {
+                ProductDTO dto;
+                try {
+                    dto = rowReader.read();
+                } catch (IllegalArgumentException e) {
+                    job.fail(row++, List.of(new FieldMessage("row", e.getMessage())));
+                    continue;
+                }
+                if (dto == null) {
+                    break;
+                }
+                batch.add(dto);
+                rows.add(row++);
+                if (batch.size() == BATCH_SIZE) {
+                    save(job, batch, rows);
+                }
+            }
+            save(job, batch, rows);
+            job.finish(ProductImportDTO.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            job.finish(ProductImportDTO.FAILED, e.getMessage());
+        }
+        return job.toDTO();
+    }
+
+    public ProductImportDTO findById(Long id) {
+        synchronized (jobs) {
+            Job job = jobs.get(id);
+            if (job == null) {
+                throw new ResourceNotFoundException("Import not found: " + id);
+            }
+            return job.toDTO();
+        }
+    }
+
+    public List<ProductImportDTO> findAll() {
+        List<ProductImportDTO> result = new ArrayList<>();
+        synchronized (jobs) {
+            jobs.values().forEach(job -> result.add(job.toDTO()));
+        }
+        return result;
+    }
+
+    /**
+     * Commits the batch, falling back to one transaction per row when the
+     * database rejects it as a whole so only the offending rows are lost.
+     */
+    private void save(Job job, List<ProductDTO> batch, List<Integer> rows) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            record(job, productService.insertAll(batch), rows);
+        } catch (RuntimeException batchFailure) {
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    record(job, productService.insertAll(List.of(batch.get(i))), rows.subList(i, i + 1));
+                } catch (RuntimeException e) {
+                    job.fail(rows.get(i), List.of(new FieldMessage("row", e.getMessage())));
+                }
+            }
+        }
+        batch.clear();
+        rows.clear();
+    }
+
+    private static void record(Job job, BatchResultDTO result, List<Integer> rows) {
+        for (BatchErrorDTO error : result.getErrors()) {
+            job.fail(rows.get(error.getIndex()), error.getErrors());
+        }
+        job.imported(result.getIds().size() - result.getErrors().size());
+    }
+
+    private static InputStream decompress(InputStream in) throws IOException {
+        InputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new GZIPInputStream(buffered);
+        }
+        return buffered;
+    }
+
+    private interface RowReader {
+        /**
+         * Returns the next row, or null at the end of the stream. A row that
+         * cannot be read throws IllegalArgumentException and is consumed.
+         */
+        ProductDTO read() throws IOException;
+    }
+
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+
+        private NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ProductDTO read() throws IOException {
+            String line;
+            do {
+                line = readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            try {
+                return objectMapper.readValue(line, ProductDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException(e.getOriginalMessage());
+            }
+        }
+
+        /**
+         * Like BufferedReader.readLine, but a line over MAX_ROW_LENGTH is
+         * skipped to its end and rejected.
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (line.length() == MAX_ROW_LENGTH) {
+                    while (c != -1 && c != '\n') {
+                        c = reader.read();
+                    }
+                    throw new IllegalArgumentException("Row is longer than " + MAX_ROW_LENGTH + " characters");
+                }
+                line.append((char) c);
+                c = reader.read();
+            }
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(length - 1);
+            }
+            return line.toString();
+        }
+    }
+
+    /**
+     * Reads RFC 4180 records, whose columns are named by the header line in
+     * any order. The id column is ignored and categoryIds is a semicolon
+     * separated list.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private Map<String, Integer> columns;
+
+        private CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ProductDTO read() throws IOException {
+            if (columns == null) {
+                List<String> header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim(), i);
+                }
+            }
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            try {
+                ProductDTO dto = new ProductDTO();
+                dto.setName(field(record, "name"));
+                dto.setDescription(field(record, "description"));
+                String price = field(record, "price");
+                dto.setPrice(price == null ? null : Double.valueOf(price));
+                dto.setImgUrl(field(record, "imgUrl"));
+                String date = field(record, "date");
+                dto.setDate(date == null ? null : Instant.parse(date));
+                String categoryIds = field(record, "categoryIds");
+                if (categoryIds != null) {
+                    for (String categoryId : categoryIds.split(";")) {
+                        dto.getCategories().add(new CategoryDTO(Long.valueOf(categoryId.trim()), null));
+                    }
+                }
+                return dto;
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date: " + e.getParsedString());
+            }
+        }
+
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int length = 0;
+            while (true) {
+                if (++length > MAX_ROW_LENGTH) {
+                    throw new BadRequestException("CSV record is longer than " + MAX_ROW_LENGTH
+                            + " characters; is a quote left open?");
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        c = reader.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+
+    private static final class Job {
+        private final Long id;
+        private final String format;
+        private final Instant startedAt = Instant.now();
+        private final List<BatchErrorDTO> errors = new ArrayList<>();
+        private String status = ProductImportDTO.RUNNING;
+        private String message;
+        private Instant finishedAt;
+        private long imported;
+        private long failed;
+
+        private Job(Long id, String format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        private synchronized void imported(long count) {
+            imported += count;
+        }
+
+        private synchronized void fail(int row, List<FieldMessage> rowErrors) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new BatchErrorDTO(row, rowErrors));
+            }
+        }
+
+        private synchronized void finish(String status, String message) {
+            this.status = status;
+            this.message = message;
+            this.finishedAt = Instant.now();
+        }
+
+        private synchronized ProductImportDTO toDTO() {
+            ProductImportDTO dto = new ProductImportDTO();
+            dto.setId(id);
+            dto.setFormat(format);
+            dto.setStatus(status);
+            dto.setMessage(message);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setImported(imported);
+            dto.setFailed(failed);
+            dto.setProcessed(imported + failed);
+            dto.setErrors(new ArrayList<>(errors));
+            return dto;
+        }
+    }
+}
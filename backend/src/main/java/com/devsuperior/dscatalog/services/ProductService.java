@@ -1,40 +1,203 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.components.CategoryRegistry;
+import com.devsuperior.dscatalog.components.PageCountCache;
+import com.devsuperior.dscatalog.components.ProductCategoryIndex;
+import com.devsuperior.dscatalog.components.ProductETagCache;
+import com.devsuperior.dscatalog.components.ProductNameIndex;
+import com.devsuperior.dscatalog.components.ProductRangeIndex;
+import com.devsuperior.dscatalog.components.ResponseCache;
+import com.devsuperior.dscatalog.dto.BatchErrorDTO;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.FacetedPageDTO;
+import com.devsuperior.dscatalog.dto.FieldSelection;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductFilterDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
-import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.projections.CategoryCountProjection;
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import javax.validation.Validator;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 public class ProductService {
 
+	private static final String COUNT_KEY = "products:";
+	private static final int MAX_INDEXED_IDS = 1000;
+	private static final int MAX_CURSOR_PAGE_SIZE = 100;
+	private static final int MAX_BATCH_SIZE = 1000;
+	// matches spring.jpa.properties.hibernate.jdbc.batch_size
+	private static final int FLUSH_SIZE = 50;
+
 	@Autowired
 	private ProductRepository repository;
 
 	@Autowired
-	private CategoryRepository catRepository;
+	private CategoryRegistry categoryRegistry;
+
+	@Autowired
+	private ProductNameIndex nameIndex;
+
+	@Autowired
+	private ProductCategoryIndex categoryIndex;
+
+	@Autowired
+	private ProductRangeIndex rangeIndex;
+
+	@Autowired
+	private PageCountCache countCache;
+
+	@Autowired
+	private ProductETagCache etags;
+
+	@Autowired
+	private ResponseCache responseCache;
+
+	@Autowired
+	private Validator validator;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Transactional(readOnly = true)
+	public Page<ProductDTO> findAllPaged(Pageable pageable, ProductFilterDTO filter) {
+		return findAllPaged(pageable, filter, FieldSelection.all(ProductDTO.FIELDS));
+	}
+
+	/**
+	 * Page whose rows are only guaranteed to hold the selected fields: the
+	 * description is not read unless selected, and neither are the categories.
+	 */
+	@Transactional(readOnly = true)
+	public Page<ProductDTO> findAllPaged(Pageable pageable, ProductFilterDTO filter, FieldSelection<ProductDTO> fields) {
+		Criteria criteria = criteriaOf(filter);
+		if (criteria.isEmpty()) {
+			return Page.empty(pageable);
+		}
+		Optional<Page<ProductDTO>> sorted = findPageInMemory(pageable, criteria, fields);
+		if (sorted.isPresent()) {
+			return sorted.get();
+		}
+		Slice<ProductDTO> productsList = findSlice(pageable, criteria, fields);
+		return PageableExecutionUtils.getPage(productsList.getContent(), pageable,
+				() -> countCache.get(COUNT_KEY + criteria.key, () -> repository.countFiltered(
+						criteria.categoryIds, criteria.categoryCount, criteria.ids, criteria.name,
+						criteria.pricesFiltered, criteria.minPrice, criteria.maxPrice,
+						criteria.datesFiltered, criteria.from, criteria.to)));
+	}
+
+	/**
+	 * Same page as findAllPaged, plus per-category counts of the products
+	 * matching the name, price and date filters regardless of the category filter.
+	 */
+	@Transactional(readOnly = true)
+	public FacetedPageDTO<ProductDTO> findAllFaceted(Pageable pageable, ProductFilterDTO filter) {
+		return findAllFaceted(pageable, filter, FieldSelection.all(ProductDTO.FIELDS));
+	}
 
 	@Transactional(readOnly = true)
-	public Page<ProductDTO> findAllPaged(Pageable pageable, Long categoryId, String name) {
-		List<Category> categories = categoryId == 0 ? null : List.of(catRepository.getOne(categoryId));
-		Page<Product> productsList = repository.find(pageable, categories, name);
-		repository.findProductsWithCategories(productsList.getContent());
-		return productsList.map(x-> new ProductDTO(x, x.getCategories()));
+	public FacetedPageDTO<ProductDTO> findAllFaceted(Pageable pageable, ProductFilterDTO filter,
+			FieldSelection<ProductDTO> fields) {
+		Page<ProductDTO> page = findAllPaged(pageable, filter, fields);
+		Map<Long, Long> counts = countByCategory(filter);
+		List<CategoryFacetDTO> facets = categoryRegistry.findAll(Sort.by("id")).orElseThrow().stream()
+				.map(category -> new CategoryFacetDTO(category.getId(), category.getName(),
+						counts.getOrDefault(category.getId(), 0L)))
+				.collect(Collectors.toList());
+		return new FacetedPageDTO<>(page, facets);
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<ProductDTO> findAllSliced(Pageable pageable, ProductFilterDTO filter) {
+		return findAllSliced(pageable, filter, FieldSelection.all(ProductDTO.FIELDS));
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<ProductDTO> findAllSliced(Pageable pageable, ProductFilterDTO filter, FieldSelection<ProductDTO> fields) {
+		Criteria criteria = criteriaOf(filter);
+		if (criteria.isEmpty()) {
+			return new SliceImpl<>(List.of(), pageable, false);
+		}
+		Optional<Page<ProductDTO>> sorted = findPageInMemory(pageable, criteria, fields);
+		if (sorted.isPresent()) {
+			return new SliceImpl<>(sorted.get().getContent(), pageable, sorted.get().hasNext());
+		}
+		return findSlice(pageable, criteria, fields);
+	}
+
+	@Transactional(readOnly = true)
+	public CursorPageDTO<ProductDTO> findAllAfter(String after, int size, ProductFilterDTO filter) {
+		if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+			throw new BadRequestException("Size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+		}
+		String afterName = "";
+		Long afterId = 0L;
+		if (!after.isEmpty()) {
+			try {
+				String cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+				int separator = cursor.indexOf(':');
+				afterId = Long.valueOf(cursor.substring(0, separator));
+				afterName = cursor.substring(separator + 1);
+			} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+				throw new BadRequestException("Invalid cursor: " + after);
+			}
+		}
+
+		Criteria criteria = criteriaOf(filter);
+		if (criteria.isEmpty()) {
+			return new CursorPageDTO<>(List.of(), null);
+		}
+		Pageable limit = PageRequest.of(0, size + 1);
+		List<ProductDTO> products = repository.findAfter(limit, criteria.categoryIds, criteria.categoryCount,
+				criteria.ids, criteria.name, criteria.pricesFiltered, criteria.minPrice, criteria.maxPrice,
+				criteria.datesFiltered, criteria.from, criteria.to, afterName, afterId);
+
+		String nextCursor = null;
+		if (products.size() > size) {
+			products = products.subList(0, size);
+			ProductDTO last = products.get(size - 1);
+			nextCursor = encodeCursor(last.getId() + ":" + last.getName());
+		}
+		return new CursorPageDTO<>(withCategories(products), nextCursor);
 	}
 
 	@Transactional(readOnly = true)
@@ -49,15 +212,53 @@ public class ProductService {
 		Product entity = new Product();
 		copyDtoToEntity(dto, entity);
 		entity = repository.save(entity);
+		index(entity);
 		return new ProductDTO(entity);
 	}
 
+	/**
+	 * Inserts the valid items and reports the invalid ones by position. The
+	 * persistence context is flushed and cleared every FLUSH_SIZE items so the
+	 * inserts go out as JDBC batches and memory stays flat.
+	 */
+	@Transactional
+	public BatchResultDTO insertAll(List<ProductDTO> dtos) {
+		if (dtos.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("Batch must have at most " + MAX_BATCH_SIZE + " products");
+		}
+		BatchResultDTO result = new BatchResultDTO();
+		IndexUpdate update = new IndexUpdate();
+		int pending = 0;
+		for (int i = 0; i < dtos.size(); i++) {
+			ProductDTO dto = dtos.get(i);
+			List<FieldMessage> errors = validate(dto);
+			if (!errors.isEmpty()) {
+				result.getIds().add(null);
+				result.getErrors().add(new BatchErrorDTO(i, errors));
+				continue;
+			}
+			Product entity = new Product();
+			copyDtoToEntity(dto, entity);
+			entity = repository.save(entity);
+			update.add(entity);
+			result.getIds().add(entity.getId());
+			if (++pending == FLUSH_SIZE) {
+				repository.flush();
+				entityManager.clear();
+				pending = 0;
+			}
+		}
+		update.afterCommit();
+		return result;
+	}
+
 	@Transactional
 	public ProductDTO update(Long id, ProductDTO dto) {
 		try {
 			Product entity = repository.getOne(id);
 			copyDtoToEntity(dto, entity);
 			entity = repository.save(entity);
+			index(entity);
 			return new ProductDTO(entity);
 		} catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id not found: " + id);
@@ -67,6 +268,14 @@ public class ProductService {
 	public void delete(Long id) {
 		try {
 			repository.deleteById(id);
+			TransactionCallbacks.afterCommit(() -> {
+				nameIndex.remove(id);
+				categoryIndex.remove(id);
+				rangeIndex.remove(id);
+				countCache.invalidate(COUNT_KEY);
+				etags.evict(id);
+				responseCache.invalidate(ResponseCache.PRODUCTS);
+			});
 
 		} catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found: " + id);
@@ -75,6 +284,169 @@ public class ProductService {
 		}
 	}
 
+	/**
+	 * Resolves the filters against the in-memory indexes. When their combined
+	 * matches are few enough to pass as an id list, the resolved filters are
+	 * dropped from the database predicates; whatever the indexes cannot answer
+	 * (not loaded yet, or too many matches) is left to the database.
+	 */
+	private Criteria criteriaOf(ProductFilterDTO filter) {
+		Criteria criteria = new Criteria(filter);
+		Optional<BitSet> byName = criteria.name.isEmpty()
+				? Optional.empty() : nameIndex.search(criteria.name, MAX_INDEXED_IDS + 1);
+		Optional<BitSet> byCategory = criteria.categoryIds == null
+				? Optional.empty() : categoryIndex.match(criteria.categoryIds, criteria.categoryCount > 0);
+		Optional<BitSet> byPrice = criteria.pricesFiltered
+				? rangeIndex.selectPrice(filter.getMinPrice(), filter.getMaxPrice()) : Optional.empty();
+		Optional<BitSet> byDate = criteria.datesFiltered
+				? rangeIndex.selectDate(filter.getFrom(), filter.getTo()) : Optional.empty();
+
+		for (Optional<BitSet> matches : List.of(byName, byCategory, byPrice, byDate)) {
+			if (matches.isPresent()) {
+				if (criteria.matches == null) {
+					criteria.matches = matches.get();
+				} else {
+					criteria.matches.and(matches.get());
+				}
+			}
+		}
+		criteria.resolved = (criteria.name.isEmpty() || byName.isPresent())
+				&& (criteria.categoryIds == null || byCategory.isPresent())
+				&& (!criteria.pricesFiltered || byPrice.isPresent())
+				&& (!criteria.datesFiltered || byDate.isPresent());
+
+		if (criteria.matches != null && criteria.matches.cardinality() <= MAX_INDEXED_IDS) {
+			criteria.ids = criteria.matches.stream().asLongStream().boxed().collect(Collectors.toSet());
+			if (byName.isPresent()) {
+				criteria.name = "";
+			}
+			if (byCategory.isPresent()) {
+				criteria.categoryIds = null;
+				criteria.categoryCount = 0;
+			}
+			if (byPrice.isPresent()) {
+				criteria.pricesFiltered = false;
+			}
+			if (byDate.isPresent()) {
+				criteria.datesFiltered = false;
+			}
+		}
+		return criteria;
+	}
+
+	/**
+	 * Serves a page sorted by price or date from the range index when every
+	 * filter was answered in memory: the page is a walk over the sorted ids,
+	 * and the total is the number of matches, so no sort or count runs in the
+	 * database.
+	 */
+	private Optional<Page<ProductDTO>> findPageInMemory(Pageable pageable, Criteria criteria,
+			FieldSelection<ProductDTO> fields) {
+		if (!criteria.resolved || pageable.isUnpaged() || pageable.getSort().toList().size() != 1) {
+			return Optional.empty();
+		}
+		Sort.Order order = pageable.getSort().iterator().next();
+		if (!order.getProperty().equals(ProductRangeIndex.PRICE) && !order.getProperty().equals(ProductRangeIndex.DATE)) {
+			return Optional.empty();
+		}
+		Optional<BitSet> categorized = categoryIndex.categorized();
+		if (categorized.isEmpty()) {
+			return Optional.empty();
+		}
+		BitSet matches = categorized.get();
+		if (criteria.matches != null) {
+			matches.and(criteria.matches);
+		}
+		Optional<long[]> ids = rangeIndex.top(order.getProperty(), order.isDescending(), matches,
+				pageable.getOffset(), pageable.getPageSize());
+		if (ids.isEmpty()) {
+			return Optional.empty();
+		}
+
+		List<Long> pageIds = LongStream.of(ids.get()).boxed().collect(Collectors.toList());
+		List<ProductDTO> products = List.of();
+		if (!pageIds.isEmpty()) {
+			List<ProductDTO> found = fields.contains("description")
+					? repository.findByIds(pageIds) : repository.findSummariesByIds(pageIds);
+			Map<Long, ProductDTO> productsById = found.stream()
+					.collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+			products = pageIds.stream().map(productsById::get).filter(Objects::nonNull).collect(Collectors.toList());
+		}
+		if (fields.contains("categories")) {
+			withCategories(products);
+		}
+		return Optional.of(new PageImpl<>(products, pageable, matches.cardinality()));
+	}
+
+	private Map<Long, Long> countByCategory(ProductFilterDTO filter) {
+		ProductFilterDTO uncategorized = new ProductFilterDTO(List.of(), ProductFilterDTO.MODE_ANY, filter.getName());
+		uncategorized.setMinPrice(filter.getMinPrice());
+		uncategorized.setMaxPrice(filter.getMaxPrice());
+		uncategorized.setFrom(filter.getFrom());
+		uncategorized.setTo(filter.getTo());
+
+		Criteria criteria = criteriaOf(uncategorized);
+		if (criteria.resolved) {
+			Optional<Map<Long, Long>> counts = categoryIndex.countByCategory(criteria.matches);
+			if (counts.isPresent()) {
+				return counts.get();
+			}
+		}
+		criteria = new Criteria(uncategorized);
+		return repository.countByCategory(criteria.name, criteria.pricesFiltered, criteria.minPrice,
+						criteria.maxPrice, criteria.datesFiltered, criteria.from, criteria.to).stream()
+				.collect(Collectors.toMap(CategoryCountProjection::getId, CategoryCountProjection::getTotal));
+	}
+
+	private Slice<ProductDTO> findSlice(Pageable pageable, Criteria criteria, FieldSelection<ProductDTO> fields) {
+		Slice<ProductDTO> productsList = fields.contains("description")
+				? repository.find(pageable, criteria.categoryIds, criteria.categoryCount, criteria.ids, criteria.name,
+						criteria.pricesFiltered, criteria.minPrice, criteria.maxPrice, criteria.datesFiltered,
+						criteria.from, criteria.to)
+				: repository.findSummaries(pageable, criteria.categoryIds, criteria.categoryCount, criteria.ids,
+						criteria.name, criteria.pricesFiltered, criteria.minPrice, criteria.maxPrice,
+						criteria.datesFiltered, criteria.from, criteria.to);
+		if (fields.contains("categories")) {
+			withCategories(productsList.getContent());
+		}
+		return productsList;
+	}
+
+	private List<FieldMessage> validate(ProductDTO dto) {
+		List<FieldMessage> errors = validator.validate(dto).stream()
+				.map(violation -> new FieldMessage(violation.getPropertyPath().toString(), violation.getMessage()))
+				.collect(Collectors.toList());
+		for (CategoryDTO category : dto.getCategories()) {
+			if (category.getId() == null || categoryRegistry.findById(category.getId()).isEmpty()) {
+				errors.add(new FieldMessage("categories", "Category not found: " + category.getId()));
+			}
+		}
+		return errors;
+	}
+
+	private List<ProductDTO> withCategories(List<ProductDTO> products) {
+		if (products.isEmpty()) {
+			return products;
+		}
+		Map<Long, ProductDTO> productsById = products.stream()
+				.collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+		for (ProductCategoryProjection category : repository.findCategories(productsById.keySet())) {
+			productsById.get(category.getProductId()).getCategories()
+					.add(new CategoryDTO(category.getId(), category.getName()));
+		}
+		return products;
+	}
+
+	private static String encodeCursor(String cursor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void index(Product entity) {
+		IndexUpdate update = new IndexUpdate();
+		update.add(entity);
+		update.afterCommit();
+	}
+
 	private void copyDtoToEntity(ProductDTO dto, Product entity) {
 		entity.setName(dto.getName());
 		entity.setDescription(dto.getDescription());
@@ -83,8 +455,111 @@ public class ProductService {
 		entity.setPrice(dto.getPrice());
 		entity.getCategories().clear();
 		for (CategoryDTO catDto: dto.getCategories()) {
-			Category category = catRepository.getOne(catDto.getId());
+			Category category = categoryRegistry.getReference(catDto.getId());
 			entity.getCategories().add(category);
 		}
 	}
+
+	/**
+	 * Values of the products written by one transaction, applied to the
+	 * in-memory indexes and caches by a single after-commit callback, so a
+	 * batch merges into the range index once and drops the cached counts and
+	 * responses once.
+	 */
+	private final class IndexUpdate {
+		private final List<Long> ids = new ArrayList<>();
+		private final List<String> names = new ArrayList<>();
+		private final List<Double> prices = new ArrayList<>();
+		private final List<Instant> dates = new ArrayList<>();
+		private final List<List<Long>> categoryIds = new ArrayList<>();
+
+		private void add(Product entity) {
+			ids.add(entity.getId());
+			names.add(entity.getName());
+			prices.add(entity.getPrice());
+			dates.add(entity.getDate());
+			categoryIds.add(entity.getCategories().stream().map(Category::getId).collect(Collectors.toList()));
+		}
+
+		private void afterCommit() {
+			if (ids.isEmpty()) {
+				return;
+			}
+			long[] rangeIds = ids.stream().mapToLong(Long::longValue).toArray();
+			Double[] rangePrices = prices.toArray(new Double[0]);
+			Instant[] rangeDates = dates.toArray(new Instant[0]);
+			TransactionCallbacks.afterCommit(() -> {
+				for (int i = 0; i < ids.size(); i++) {
+					nameIndex.put(ids.get(i), names.get(i));
+					categoryIndex.put(ids.get(i), categoryIds.get(i));
+					etags.evict(ids.get(i));
+				}
+				rangeIndex.putAll(rangeIds, rangePrices, rangeDates);
+				countCache.invalidate(COUNT_KEY);
+				responseCache.invalidate(ResponseCache.PRODUCTS);
+			});
+		}
+	}
+
+	/**
+	 * Database predicates of a listing request, plus what the in-memory
+	 * indexes resolved of it.
+	 */
+	private static final class Criteria {
+		private static final Instant MIN_DATE = Instant.parse("0001-01-01T00:00:00Z");
+		private static final Instant MAX_DATE = Instant.parse("9999-12-31T23:59:59Z");
+
+		private final String key;
+		private List<Long> categoryIds;
+		private long categoryCount;
+		private Set<Long> ids;
+		private String name;
+		private boolean pricesFiltered;
+		private final double minPrice;
+		private final double maxPrice;
+		private boolean datesFiltered;
+		private final Instant from;
+		private final Instant to;
+		private BitSet matches;
+		private boolean resolved;
+
+		private Criteria(ProductFilterDTO filter) {
+			boolean matchAll;
+			switch (filter.getMode()) {
+				case ProductFilterDTO.MODE_ANY:
+					matchAll = false;
+					break;
+				case ProductFilterDTO.MODE_ALL:
+					matchAll = true;
+					break;
+				default:
+					throw new BadRequestException("Mode must be " + ProductFilterDTO.MODE_ANY + " or "
+							+ ProductFilterDTO.MODE_ALL);
+			}
+			Set<Long> categorySet = new TreeSet<>(filter.getCategoryIds());
+			if (filter.getCategoryId() != 0) {
+				categorySet.add(filter.getCategoryId());
+			}
+			List<Long> sortedIds = List.copyOf(categorySet);
+			matchAll = matchAll && sortedIds.size() > 1;
+
+			categoryIds = sortedIds.isEmpty() ? null : sortedIds;
+			categoryCount = matchAll ? sortedIds.size() : 0;
+			name = filter.getName();
+			pricesFiltered = filter.getMinPrice() != null || filter.getMaxPrice() != null;
+			minPrice = filter.getMinPrice() != null ? filter.getMinPrice() : -Double.MAX_VALUE;
+			maxPrice = filter.getMaxPrice() != null ? filter.getMaxPrice() : Double.MAX_VALUE;
+			datesFiltered = filter.getFrom() != null || filter.getTo() != null;
+			from = filter.getFrom() != null ? filter.getFrom() : MIN_DATE;
+			to = filter.getTo() != null ? filter.getTo() : MAX_DATE;
+			key = String.join(":", sortedIds.toString(),
+					matchAll ? ProductFilterDTO.MODE_ALL : ProductFilterDTO.MODE_ANY, name,
+					String.valueOf(filter.getMinPrice()), String.valueOf(filter.getMaxPrice()),
+					String.valueOf(filter.getFrom()), String.valueOf(filter.getTo()));
+		}
+
+		private boolean isEmpty() {
+			return ids != null && ids.isEmpty();
+		}
+	}
 }
@@ -1,11 +1,15 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.components.EmailBloomFilter;
+import com.devsuperior.dscatalog.components.PageCountCache;
+import com.devsuperior.dscatalog.dto.FieldSelection;
 import com.devsuperior.dscatalog.dto.RoleDTO;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
 import com.devsuperior.dscatalog.dto.UserUpdateDTO;
 import com.devsuperior.dscatalog.entities.Role;
 import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.projections.UserRoleProjection;
 import com.devsuperior.dscatalog.repositories.RoleRepository;
 import com.devsuperior.dscatalog.repositories.UserRepository;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
@@ -17,20 +21,28 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService implements UserDetailsService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final String COUNT_KEY = "users";
+
     @Autowired
     private UserRepository repository;
 
@@ -38,12 +50,44 @@ public class UserService implements UserDetailsService {
     private RoleRepository roleRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PageCountCache countCache;
+
+    // filled before commit: a rolled back email only costs a false positive,
+    // while a late one could let a duplicate past validation
+    @Autowired
+    private EmailBloomFilter emails;
 
     @Transactional(readOnly = true)
     public Page<UserDTO> findAllPaged(Pageable pageable) {
-        Page<User> UsersList = repository.findAll(pageable);
-        return UsersList.map(UserDTO::new);
+        return findAllPaged(pageable, FieldSelection.all(UserDTO.FIELDS));
+    }
+
+    /**
+     * Page whose rows are only guaranteed to hold the selected fields: roles
+     * are not read unless selected.
+     */
+    @Transactional(readOnly = true)
+    public Page<UserDTO> findAllPaged(Pageable pageable, FieldSelection<UserDTO> fields) {
+        Slice<UserDTO> UsersList = findAllSliced(pageable, fields);
+        return PageableExecutionUtils.getPage(UsersList.getContent(), pageable,
+                () -> countCache.get(COUNT_KEY, repository::count));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> findAllSliced(Pageable pageable) {
+        return findAllSliced(pageable, FieldSelection.all(UserDTO.FIELDS));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> findAllSliced(Pageable pageable, FieldSelection<UserDTO> fields) {
+        Slice<UserDTO> UsersList = repository.findAllBy(pageable);
+        if (fields.contains("roles")) {
+            withRoles(UsersList.getContent());
+        }
+        return UsersList;
     }
 
     @Transactional(readOnly = true)
@@ -59,6 +103,8 @@ public class UserService implements UserDetailsService {
         copyDtoToEntity(dto, entity);
         entity.setPassword(passwordEncoder.encode(dto.getPassword()));
         entity = repository.save(entity);
+        emails.put(entity.getEmail());
+        TransactionCallbacks.afterCommit(() -> countCache.invalidate(COUNT_KEY));
         return new UserDTO(entity);
     }
 
@@ -68,6 +114,7 @@ public class UserService implements UserDetailsService {
             User entity = repository.getOne(id);
             copyDtoToEntity(dto, entity);
             entity = repository.save(entity);
+            emails.put(entity.getEmail());
             return new UserDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id not found: " + id);
@@ -77,6 +124,7 @@ public class UserService implements UserDetailsService {
     public void delete(Long id) {
         try {
             repository.deleteById(id);
+            TransactionCallbacks.afterCommit(() -> countCache.invalidate(COUNT_KEY));
 
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException("Id not found: " + id);
@@ -85,6 +133,17 @@ public class UserService implements UserDetailsService {
         }
     }
 
+    private void withRoles(List<UserDTO> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<Long, UserDTO> usersById = users.stream()
+                .collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+        for (UserRoleProjection role : repository.findRoles(usersById.keySet())) {
+            usersById.get(role.getUserId()).getRoles().add(new RoleDTO(role.getId(), role.getAuthority()));
+        }
+    }
+
     private void copyDtoToEntity(UserDTO dto, User entity) {
         entity.setFirstName(dto.getFirstName());
         entity.setLastName(dto.getLastName());
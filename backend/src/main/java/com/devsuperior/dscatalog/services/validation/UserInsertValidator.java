@@ -8,8 +8,8 @@ import javax.validation.ConstraintValidatorContext;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.devsuperior.dscatalog.components.EmailBloomFilter;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
-import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.repositories.UserRepository;
 import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
 
@@ -18,6 +18,9 @@ public class UserInsertValidator implements ConstraintValidator<UserInsertValid,
     @Autowired
     private UserRepository repository;
 
+    @Autowired
+    private EmailBloomFilter emails;
+
     @Override
     public void initialize(UserInsertValid ann) {
     }
@@ -27,8 +30,7 @@ public class UserInsertValidator implements ConstraintValidator<UserInsertValid,
 
         List<FieldMessage> list = new ArrayList<>();
 
-        User user = repository.findByEmail(dto.getEmail());
-        if (user != null)
+        if (emails.mightContain(dto.getEmail()) && repository.existsByEmail(dto.getEmail()))
             list.add(new FieldMessage("email", "Email já existe"));
 
         for (FieldMessage e : list) {
@@ -1,9 +1,9 @@
 package com.devsuperior.dscatalog.services.validation;
 
+import com.devsuperior.dscatalog.components.EmailBloomFilter;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
 import com.devsuperior.dscatalog.dto.UserUpdateDTO;
-import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.repositories.UserRepository;
 import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +21,9 @@ public class UserUpdateValidator implements ConstraintValidator<UserUpdateValid,
     @Autowired
     private UserRepository repository;
 
+    @Autowired
+    private EmailBloomFilter emails;
+
     @Autowired
     private HttpServletRequest request;
 
@@ -35,8 +38,7 @@ public class UserUpdateValidator implements ConstraintValidator<UserUpdateValid,
         var uriVars = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
         long userId = Long.parseLong(uriVars.get("id"));
 
-        User user = repository.findByEmail(dto.getEmail());
-        if (user != null && userId != user.getId())
+        if (emails.mightContain(dto.getEmail()) && repository.existsByEmailAndIdNot(dto.getEmail(), userId))
             list.add(new FieldMessage("email", "Email já existe"));
 
         for (FieldMessage e : list) {
@@ -0,0 +1,74 @@
+package com.devsuperior.dscatalog.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class CachingJwtTokenStoreTests {
+
+    private JwtAccessTokenConverter converter;
+    private CachingJwtTokenStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        converter = new JwtAccessTokenConverter();
+        converter.setSigningKey("TEST-SECRET");
+        converter.afterPropertiesSet();
+        store = new CachingJwtTokenStore(converter);
+    }
+
+    @Test
+    public void readAccessTokenShouldDecodeTokenOnlyOnceWhenRepeated() {
+        String token = encode(new Date(System.currentTimeMillis() + 60000));
+
+        OAuth2AccessToken first = store.readAccessToken(token);
+        OAuth2AccessToken second = store.readAccessToken(token);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(0.5, store.getHitRate());
+    }
+
+    @Test
+    public void readAuthenticationShouldReturnCopyOfCachedAuthentication() {
+        String token = encode(new Date(System.currentTimeMillis() + 60000));
+
+        OAuth2Authentication first = store.readAuthentication(token);
+        OAuth2Authentication second = store.readAuthentication(token);
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals("maria@gmail.com", second.getName());
+        Assertions.assertEquals(0.5, store.getHitRate());
+    }
+
+    @Test
+    public void readAccessTokenShouldDecodeAgainWhenCachedTokenExpired() {
+        String token = encode(new Date(System.currentTimeMillis() - 1000));
+
+        store.readAccessToken(token);
+        store.readAccessToken(token);
+
+        Assertions.assertEquals(0.0, store.getHitRate());
+    }
+
+    private String encode(Date expiration) {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        token.setExpiration(expiration);
+        OAuth2Request request = new OAuth2Request(Map.of(), "dscatalog", AuthorityUtils.NO_AUTHORITIES, true,
+                Set.of("read"), Set.of(), null, Set.of(), Map.of());
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken("maria@gmail.com", "N/A",
+                AuthorityUtils.createAuthorityList("ROLE_OPERATOR"));
+        return converter.enhance(token, new OAuth2Authentication(request, user)).getValue();
+    }
+}
@@ -0,0 +1,80 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(SpringExtension.class)
+public class CategoryRegistryTests {
+
+    @InjectMocks
+    private CategoryRegistry registry;
+
+    @Mock
+    private CategoryRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Mockito.when(repository.findAll(any(Sort.class))).thenReturn(List.of(
+                new Category(1L, "Livros"),
+                new Category(2L, "Eletrônicos"),
+                new Category(3L, "Computadores")));
+        registry.reload();
+    }
+
+    @Test
+    public void findByIdShouldReturnCategoryWithoutQueryingRepository() {
+        Assertions.assertEquals("Livros", registry.findById(1L).orElseThrow().getName());
+        Assertions.assertTrue(registry.findById(4L).isEmpty());
+        Mockito.verify(repository, Mockito.never()).findById(any());
+    }
+
+    @Test
+    public void findAllShouldSortBySupportedProperties() {
+        List<CategoryDTO> result = registry.findAll(Sort.by(Sort.Direction.DESC, "name")).orElseThrow();
+        Assertions.assertEquals(List.of(1L, 2L, 3L), result.stream().map(CategoryDTO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void findAllShouldReturnEmptyWhenSortPropertyIsNotInSnapshot() {
+        Assertions.assertTrue(registry.findAll(Sort.by("createdAt")).isEmpty());
+    }
+
+    @Test
+    public void getReferenceShouldThrowResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> registry.getReference(4L));
+    }
+
+    @Test
+    public void getETagShouldChangeWhenCategoryIsRemoved() {
+        String etag = registry.getETag();
+        Mockito.when(repository.findAll(any(Sort.class))).thenReturn(List.of(
+                new Category(1L, "Livros"),
+                new Category(2L, "Eletrônicos")));
+        registry.reload();
+        Assertions.assertNotEquals(etag, registry.getETag());
+    }
+
+    @Test
+    public void reloadShouldReplaceSnapshot() {
+        Mockito.when(repository.findAll(any(Sort.class))).thenReturn(List.of(new Category(4L, "Games")));
+        registry.reload();
+        Assertions.assertTrue(registry.findById(1L).isEmpty());
+        Assertions.assertEquals("Games", registry.findById(4L).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,33 @@
+package com.devsuperior.dscatalog.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ETagsTests {
+
+    private static final String ETAG = ETags.of(1L, "Smart TV");
+
+    @Test
+    public void forAcceptShouldKeepETagWhenJsonIsNegotiated() {
+        Assertions.assertEquals(ETAG, ETags.forAccept(ETAG, null));
+        Assertions.assertEquals(ETAG, ETags.forAccept(ETAG, "*/*"));
+        Assertions.assertEquals(ETAG, ETags.forAccept(ETAG, "application/json"));
+        Assertions.assertEquals(ETAG, ETags.forAccept(ETAG, "not a media type"));
+    }
+
+    @Test
+    public void forAcceptShouldAppendFormatWhenBinaryFormatIsNegotiated() {
+        String cbor = ETags.forAccept(ETAG, "application/cbor");
+        String smile = ETags.forAccept(ETAG, "application/x-jackson-smile");
+
+        Assertions.assertEquals(ETAG.substring(0, ETAG.length() - 1) + "-cbor\"", cbor);
+        Assertions.assertEquals(ETAG.substring(0, ETAG.length() - 1) + "-smile\"", smile);
+    }
+
+    @Test
+    public void forAcceptShouldFollowQualityValues() {
+        Assertions.assertEquals(ETags.forAccept(ETAG, "application/cbor"),
+                ETags.forAccept(ETAG, "application/json;q=0.5, application/cbor"));
+        Assertions.assertEquals(ETAG, ETags.forAccept(ETAG, "application/cbor;q=0, */*"));
+    }
+}
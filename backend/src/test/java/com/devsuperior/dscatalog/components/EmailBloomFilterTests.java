@@ -0,0 +1,49 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+public class EmailBloomFilterTests {
+
+    @InjectMocks
+    private EmailBloomFilter filter;
+
+    @Mock
+    private UserRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Mockito.when(repository.findAllEmails()).thenReturn(List.of("alex@gmail.com", "maria@gmail.com"));
+        filter.load();
+    }
+
+    @Test
+    public void mightContainShouldBeTrueForLoadedAndAddedEmails() {
+        filter.put("bob@gmail.com");
+
+        Assertions.assertTrue(filter.mightContain("alex@gmail.com"));
+        Assertions.assertTrue(filter.mightContain("maria@gmail.com"));
+        Assertions.assertTrue(filter.mightContain("bob@gmail.com"));
+    }
+
+    @Test
+    public void mightContainShouldRejectMostUnknownEmails() {
+        int hits = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("user" + i + "@gmail.com")) {
+                hits++;
+            }
+        }
+        Assertions.assertTrue(hits < 10);
+    }
+}
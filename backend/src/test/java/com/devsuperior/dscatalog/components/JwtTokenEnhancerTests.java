@@ -0,0 +1,70 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Map;
+import java.util.Set;
+
+@ExtendWith(SpringExtension.class)
+public class JwtTokenEnhancerTests {
+
+    @InjectMocks
+    private JwtTokenEnhancer enhancer;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private User user;
+    private OAuth2Request request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        user = new User();
+        user.setId(1L);
+        user.setFirstName("Maria");
+        user.setEmail("maria@gmail.com");
+        request = new OAuth2Request(Map.of(), "dscatalog", AuthorityUtils.NO_AUTHORITIES, true,
+                Set.of("read"), Set.of(), null, Set.of(), Map.of());
+        Mockito.when(userRepository.findByEmail("maria@gmail.com")).thenReturn(user);
+    }
+
+    @Test
+    public void enhanceShouldUseAuthenticatedUserWithoutLookup() {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.NO_AUTHORITIES);
+
+        OAuth2AccessToken token = enhancer.enhance(new DefaultOAuth2AccessToken("token"),
+                new OAuth2Authentication(request, authentication));
+
+        Assertions.assertEquals("Maria", token.getAdditionalInformation().get("userFirstName"));
+        Assertions.assertEquals(1L, token.getAdditionalInformation().get("userId"));
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void enhanceShouldLookUpUserWhenPrincipalIsNotUser() {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("maria@gmail.com", null, AuthorityUtils.NO_AUTHORITIES);
+
+        OAuth2AccessToken token = enhancer.enhance(new DefaultOAuth2AccessToken("token"),
+                new OAuth2Authentication(request, authentication));
+
+        Assertions.assertEquals(1L, token.getAdditionalInformation().get("userId"));
+        Mockito.verify(userRepository).findByEmail("maria@gmail.com");
+    }
+}
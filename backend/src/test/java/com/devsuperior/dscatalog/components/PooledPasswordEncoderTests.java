@@ -0,0 +1,85 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PooledPasswordEncoderTests {
+
+    private SimpleMeterRegistry registry;
+    private PooledPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        encoder = new PooledPasswordEncoder(1, 1, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    public void matchesShouldAcceptEncodedPasswordAndRecordHashTimes() {
+        String encoded = encoder.encode("123456");
+
+        Assertions.assertTrue(encoder.matches("123456", encoded));
+        Assertions.assertFalse(encoder.matches("654321", encoded));
+        Assertions.assertEquals(1, registry.get("password.hash.time").tag("operation", "encode").timer().count());
+        Assertions.assertEquals(2, registry.get("password.hash.wait").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void isSaturatedShouldBeFalseWhenPoolIsIdle() {
+        Assertions.assertFalse(encoder.isSaturated());
+    }
+
+    @Test
+    public void matchesShouldThrowServiceUnavailableWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        PooledPasswordEncoder saturated = new PooledPasswordEncoder(blocking, 1, 1, new SimpleMeterRegistry());
+        Thread running = new Thread(() -> saturated.matches("123456", "123456"));
+        Thread queued = new Thread(() -> saturated.matches("123456", "123456"));
+        try {
+            running.start();
+            queued.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!saturated.isSaturated() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertTrue(saturated.isSaturated());
+            Assertions.assertThrows(ServiceUnavailableException.class, () -> saturated.matches("123456", "123456"));
+        } finally {
+            release.countDown();
+            running.join();
+            queued.join();
+            saturated.destroy();
+        }
+        Assertions.assertFalse(saturated.isSaturated());
+    }
+}
@@ -0,0 +1,79 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(SpringExtension.class)
+public class ProductCategoryIndexTests {
+
+    @InjectMocks
+    private ProductCategoryIndex index;
+
+    @Mock
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        List<ProductCategoryProjection> categories = List.of(
+                projection(1L, 2L),
+                projection(2L, 1L),
+                projection(2L, 3L),
+                projection(3L, 3L));
+        Mockito.when(repository.findAllCategories()).thenReturn(categories);
+        index.load();
+    }
+
+    @Test
+    public void matchShouldUniteCategoriesWhenAnyIsEnough() {
+        Assertions.assertEquals(bits(1, 2), index.match(List.of(1L, 2L), false).orElseThrow());
+    }
+
+    @Test
+    public void matchShouldIntersectCategoriesWhenAllAreRequired() {
+        Assertions.assertEquals(bits(2), index.match(List.of(1L, 3L), true).orElseThrow());
+        Assertions.assertEquals(bits(), index.match(List.of(1L, 4L), true).orElseThrow());
+    }
+
+    @Test
+    public void countByCategoryShouldCountOnlyGivenProducts() {
+        Assertions.assertEquals(Map.of(1L, 1L, 2L, 1L, 3L, 2L), index.countByCategory(null).orElseThrow());
+        Assertions.assertEquals(Map.of(1L, 1L, 2L, 0L, 3L, 1L), index.countByCategory(bits(2)).orElseThrow());
+    }
+
+    @Test
+    public void putShouldReplacePreviousCategoriesAndRemoveShouldForgetProduct() {
+        index.put(3L, List.of(1L));
+        Assertions.assertEquals(bits(2, 3), index.match(List.of(1L), false).orElseThrow());
+        Assertions.assertEquals(bits(2), index.match(List.of(3L), false).orElseThrow());
+
+        index.remove(2L);
+        Assertions.assertEquals(bits(3), index.match(List.of(1L, 3L), false).orElseThrow());
+    }
+
+    private static BitSet bits(int... productIds) {
+        BitSet result = new BitSet();
+        for (int productId : productIds) {
+            result.set(productId);
+        }
+        return result;
+    }
+
+    private static ProductCategoryProjection projection(Long productId, Long categoryId) {
+        ProductCategoryProjection projection = Mockito.mock(ProductCategoryProjection.class);
+        Mockito.when(projection.getProductId()).thenReturn(productId);
+        Mockito.when(projection.getId()).thenReturn(categoryId);
+        return projection;
+    }
+}
@@ -0,0 +1,96 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.projections.ProductNameProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+public class ProductNameIndexTests {
+
+    @InjectMocks
+    private ProductNameIndex index;
+
+    @Mock
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Mockito.when(repository.findAllNames()).thenReturn(List.of(
+                projection(1L, "PC Gamer"),
+                projection(2L, "PC Gamer Alfa"),
+                projection(3L, "Macbook Pro"),
+                projection(4L, "Smart TV")));
+        index.load();
+    }
+
+    @Test
+    public void searchShouldReturnIdsWhoseNameContainsTextIgnoringCase() {
+        Assertions.assertEquals(Optional.of(bits(1, 2)), index.search("gAMer", 10));
+        Assertions.assertEquals(Optional.of(bits(2)), index.search("r alf", 10));
+    }
+
+    @Test
+    public void searchShouldMatchTextShorterThanAGram() {
+        Assertions.assertEquals(Optional.of(bits(3)), index.search("k", 10));
+    }
+
+    @Test
+    public void searchShouldReturnEmptySetWhenNothingMatches() {
+        Assertions.assertEquals(Optional.of(bits()), index.search("phone", 10));
+    }
+
+    @Test
+    public void searchShouldGiveUpWhenMatchesExceedLimit() {
+        Assertions.assertTrue(index.search("pc", 1).isEmpty());
+    }
+
+    @Test
+    public void putShouldReplacePreviousNameAndRemoveShouldForgetProduct() {
+        index.put(4L, "Smart Phone");
+        Assertions.assertEquals(Optional.of(bits()), index.search("tv", 10));
+        Assertions.assertEquals(Optional.of(bits(4)), index.search("phone", 10));
+
+        index.remove(4L);
+        Assertions.assertEquals(Optional.of(bits()), index.search("phone", 10));
+        Assertions.assertEquals(Optional.of(bits(1, 2, 3)), index.search("", 10));
+    }
+
+    @Test
+    public void searchShouldGiveUpOnShortTextWhenMatchesExceedLimit() {
+        Assertions.assertTrue(index.search("a", 2).isEmpty());
+        Assertions.assertEquals(Optional.of(bits(1, 2, 3, 4)), index.search("a", 4));
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet result = new BitSet();
+        for (int id : ids) {
+            result.set(id);
+        }
+        return result;
+    }
+
+    private static ProductNameProjection projection(Long id, String name) {
+        return new ProductNameProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
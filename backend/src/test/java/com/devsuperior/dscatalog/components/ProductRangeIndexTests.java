@@ -0,0 +1,105 @@
+package com.devsuperior.dscatalog.components;
+
+import com.devsuperior.dscatalog.projections.ProductRangeProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+public class ProductRangeIndexTests {
+
+    @InjectMocks
+    private ProductRangeIndex index;
+
+    @Mock
+    private ProductRepository repository;
+
+    private BitSet all;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        List<ProductRangeProjection> products = List.of(
+                projection(1L, 90.5, "2020-07-13T20:50:07Z"),
+                projection(2L, 2190.0, "2020-07-14T10:00:00Z"),
+                projection(3L, 1250.0, "2020-07-14T10:00:00Z"),
+                projection(4L, 1200.0, null),
+                projection(5L, null, "2020-07-15T10:00:00Z"));
+        Mockito.when(repository.findAllRanges()).thenReturn(products);
+        index.load();
+        all = new BitSet();
+        all.set(1, 6);
+    }
+
+    @Test
+    public void selectPriceShouldReturnProductsWithinInclusiveBounds() {
+        Assertions.assertEquals(bits(3, 4), index.selectPrice(1200.0, 1250.0).orElseThrow());
+        Assertions.assertEquals(bits(2, 3, 4), index.selectPrice(1000.0, null).orElseThrow());
+        Assertions.assertEquals(bits(1), index.selectPrice(null, 100.0).orElseThrow());
+        Assertions.assertEquals(bits(), index.selectPrice(2000.0, 1000.0).orElseThrow());
+    }
+
+    @Test
+    public void selectDateShouldSkipProductsWithoutDate() {
+        Assertions.assertEquals(bits(2, 3, 5), index.selectDate(Instant.parse("2020-07-14T00:00:00Z"), null).orElseThrow());
+    }
+
+    @Test
+    public void topShouldWalkPricesInOrderWithNullsLast() {
+        Assertions.assertArrayEquals(new long[] {1L, 4L, 3L}, index.top("price", false, all, 0, 3).orElseThrow());
+        Assertions.assertArrayEquals(new long[] {2L, 3L}, index.top("price", true, all, 1, 2).orElseThrow());
+        Assertions.assertArrayEquals(new long[] {2L, 5L}, index.top("price", false, all, 3, 10).orElseThrow());
+    }
+
+    @Test
+    public void topShouldSkipProductsThatAreNotCandidates() {
+        Assertions.assertArrayEquals(new long[] {3L, 1L}, index.top("price", true, bits(1, 3), 0, 10).orElseThrow());
+        Assertions.assertTrue(index.top("name", false, all, 0, 10).isEmpty());
+    }
+
+    @Test
+    public void putShouldMoveProductAndRemoveShouldForgetIt() {
+        index.put(1L, 5000.0, null);
+        Assertions.assertArrayEquals(new long[] {1L, 2L}, index.top("price", true, bits(1, 2), 0, 10).orElseThrow());
+
+        index.remove(1L);
+        Assertions.assertEquals(bits(2), index.selectPrice(1500.0, null).orElseThrow());
+    }
+
+    @Test
+    public void putAllShouldMergeBatchKeepingLastValuesOfRepeatedIds() {
+        index.putAll(new long[] {6L, 2L, 6L}, new Double[] {10.0, 1.0, 3000.0},
+                new Instant[] {null, null, Instant.parse("2020-07-16T10:00:00Z")});
+        all.set(6);
+        Assertions.assertArrayEquals(new long[] {2L, 1L, 4L, 3L, 6L, 5L}, index.top("price", false, all, 0, 10).orElseThrow());
+        Assertions.assertEquals(bits(6), index.selectDate(Instant.parse("2020-07-16T00:00:00Z"), null).orElseThrow());
+
+        index.removeAll(new long[] {2L, 6L});
+        Assertions.assertArrayEquals(new long[] {1L, 4L, 3L, 5L}, index.top("price", false, all, 0, 10).orElseThrow());
+    }
+
+    private static BitSet bits(int... productIds) {
+        BitSet result = new BitSet();
+        for (int productId : productIds) {
+            result.set(productId);
+        }
+        return result;
+    }
+
+    private static ProductRangeProjection projection(Long id, Double price, String date) {
+        ProductRangeProjection projection = Mockito.mock(ProductRangeProjection.class);
+        Mockito.when(projection.getId()).thenReturn(id);
+        Mockito.when(projection.getPrice()).thenReturn(price);
+        Mockito.when(projection.getDate()).thenReturn(date == null ? null : Instant.parse(date));
+        return projection;
+    }
+}
@@ -0,0 +1,114 @@
+package com.devsuperior.dscatalog.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+public class ResponseCacheTests {
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 3);
+        ReflectionTestUtils.setField(cache, "maxBytes", 10_000L);
+    }
+
+    @Test
+    public void entryShouldHoldGzippedBodyOnlyWhenBodyIsLargeEnough() throws IOException {
+        byte[] large = body(4000);
+
+        ResponseCache.Entry small = entry(body(100));
+        ResponseCache.Entry compressed = entry(large);
+
+        Assertions.assertNull(small.getGzipped());
+        Assertions.assertTrue(compressed.getGzipped().length < large.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getGzipped()))) {
+            Assertions.assertArrayEquals(large, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void putShouldNotStoreEntryRenderedBeforeInvalidation() {
+        long stamp = cache.stamp();
+        cache.invalidate(ResponseCache.PRODUCTS);
+
+        cache.put("/products/1? ", entry(body(100)), stamp);
+
+        Assertions.assertNull(cache.find("/products/1? "));
+    }
+
+    @Test
+    public void invalidateShouldRemoveOnlyEntriesUnderPath() {
+        cache.put("/products/1? ", entry(body(100)), cache.stamp());
+        cache.put("/categories? ", entry(body(100)), cache.stamp());
+
+        cache.invalidate(ResponseCache.PRODUCTS);
+
+        Assertions.assertNull(cache.find("/products/1? "));
+        Assertions.assertNotNull(cache.find("/categories? "));
+        Assertions.assertEquals(100, cache.getBytes());
+    }
+
+    @Test
+    public void putShouldEvictLeastRecentlyUsedEntriesOverBounds() {
+        cache.put("/products/1? ", entry(body(100)), cache.stamp());
+        cache.put("/products/2? ", entry(body(100)), cache.stamp());
+        cache.put("/products/3? ", entry(body(100)), cache.stamp());
+        cache.find("/products/1? ");
+
+        cache.put("/products/4? ", entry(body(100)), cache.stamp());
+
+        Assertions.assertNotNull(cache.find("/products/1? "));
+        Assertions.assertNull(cache.find("/products/2? "));
+        Assertions.assertEquals(3, cache.getSize());
+    }
+
+    @Test
+    public void putShouldKeepNewEntryWhenEveryOtherEntryWasReadSinceLastSweep() {
+        cache.put("/products/1? ", entry(body(100)), cache.stamp());
+        cache.put("/products/2? ", entry(body(100)), cache.stamp());
+        cache.put("/products/3? ", entry(body(100)), cache.stamp());
+        cache.find("/products/1? ");
+        cache.find("/products/2? ");
+        cache.find("/products/3? ");
+
+        cache.put("/products/4? ", entry(body(100)), cache.stamp());
+
+        Assertions.assertNotNull(cache.find("/products/4? "));
+        Assertions.assertNull(cache.find("/products/1? "));
+        Assertions.assertEquals(3, cache.getSize());
+        Assertions.assertEquals(300, cache.getBytes());
+    }
+
+    @Test
+    public void putShouldEvictEntriesOverByteBound() {
+        cache.put("/products/1? ", entry(body(600)), cache.stamp());
+        cache.put("/products/2? ", entry(body(600)), cache.stamp());
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000L);
+
+        cache.put("/products/3? ", entry(body(300)), cache.stamp());
+
+        Assertions.assertNull(cache.find("/products/1? "));
+        Assertions.assertNotNull(cache.find("/products/2? "));
+        Assertions.assertNotNull(cache.find("/products/3? "));
+        Assertions.assertEquals(900, cache.getBytes());
+    }
+
+    private static ResponseCache.Entry entry(byte[] body) {
+        return new ResponseCache.Entry("application/json", "\"etag\"", -1L, "/products/{id}", body);
+    }
+
+    private static byte[] body(int size) {
+        byte[] body = new byte[size];
+        Arrays.fill(body, (byte) 'a');
+        return body;
+    }
+}
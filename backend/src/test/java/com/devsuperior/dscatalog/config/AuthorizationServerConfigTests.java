@@ -0,0 +1,42 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AuthorizationServerConfigTests {
+
+    private AuthorizationServerConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new AuthorizationServerConfig();
+        ReflectionTestUtils.setField(config, "retryAfter", "5");
+    }
+
+    @Test
+    public void translateShouldReturnTemporarilyUnavailableWhenPasswordCheckIsRejected() throws Exception {
+        ResponseEntity<OAuth2Exception> response = config.translate(
+                new ServiceUnavailableException("Too many password checks in progress, try again later"));
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals("temporarily_unavailable", response.getBody().getOAuth2ErrorCode());
+        Assertions.assertEquals(503, response.getBody().getHttpErrorCode());
+    }
+
+    @Test
+    public void translateShouldKeepDefaultTranslationForOtherExceptions() throws Exception {
+        ResponseEntity<OAuth2Exception> response = config.translate(new BadCredentialsException("Bad credentials"));
+
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
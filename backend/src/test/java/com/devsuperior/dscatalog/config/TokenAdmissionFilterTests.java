@@ -0,0 +1,76 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.components.PooledPasswordEncoder;
+import com.devsuperior.dscatalog.services.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class TokenAdmissionFilterTests {
+
+    private PooledPasswordEncoder passwordEncoder;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = Mockito.mock(PooledPasswordEncoder.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TokenController())
+                .addFilters(new TokenAdmissionFilter(passwordEncoder, 5))
+                .build();
+    }
+
+    @Test
+    public void tokenShouldReturnServiceUnavailableWithRetryAfterWhenPoolIsSaturated() throws Exception {
+        Mockito.when(passwordEncoder.isSaturated()).thenReturn(true);
+
+        mockMvc.perform(post("/oauth/token").param("grant_type", "password"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                .andExpect(jsonPath("$.error").value("temporarily_unavailable"));
+    }
+
+    @Test
+    public void tokenShouldReturnServiceUnavailableWithRetryAfterWhenPasswordCheckIsRejected() throws Exception {
+        Mockito.when(passwordEncoder.isSaturated()).thenReturn(false);
+
+        mockMvc.perform(post("/oauth/token").param("grant_type", "reject"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                .andExpect(jsonPath("$.error").value("temporarily_unavailable"))
+                .andExpect(jsonPath("$.error_description").value("Too many password checks"));
+    }
+
+    @Test
+    public void tokenShouldPassThroughWhenPoolHasRoom() throws Exception {
+        Mockito.when(passwordEncoder.isSaturated()).thenReturn(false);
+
+        mockMvc.perform(post("/oauth/token").param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER))
+                .andExpect(content().string("token"));
+    }
+
+    @RestController
+    static class TokenController {
+
+        @PostMapping("/oauth/token")
+        String token(@RequestParam("grant_type") String grantType) {
+            if (grantType.equals("reject")) {
+                throw new ServiceUnavailableException("Too many password checks");
+            }
+            return "token";
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.UserDTO;
+import com.devsuperior.dscatalog.projections.UserRoleProjection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class UserRepositoryTests {
+
+    @Autowired
+    private UserRepository repository;
+
+    @Test
+    public void findAllByShouldReturnSortedUsersWithoutRoles() {
+        Slice<UserDTO> users = repository.findAllBy(PageRequest.of(0, 10, Sort.by("firstName")));
+
+        Assertions.assertEquals(2, users.getNumberOfElements());
+        Assertions.assertEquals("Alex", users.getContent().get(0).getFirstName());
+        Assertions.assertTrue(users.getContent().get(0).getRoles().isEmpty());
+    }
+
+    @Test
+    public void findRolesShouldReturnRolesOfGivenUsers() {
+        List<UserRoleProjection> roles = repository.findRoles(List.of(2L));
+
+        Assertions.assertEquals(Set.of(1L, 2L),
+                roles.stream().map(UserRoleProjection::getId).collect(Collectors.toSet()));
+        Assertions.assertTrue(roles.stream().allMatch(role -> role.getUserId().equals(2L)));
+    }
+}
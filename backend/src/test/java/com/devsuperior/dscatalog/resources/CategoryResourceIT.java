@@ -0,0 +1,71 @@
+package com.devsuperior.dscatalog.resources;
+
+import com.devsuperior.dscatalog.components.ResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static com.devsuperior.dscatalog.utils.AsyncUtil.perform;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "async.enabled=false")
+@AutoConfigureMockMvc
+public class CategoryResourceIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ResponseCache responseCache;
+
+    @AfterEach
+    void tearDown() {
+        responseCache.clear();
+    }
+
+    @Test
+    public void findAllShouldReturnOnlySelectedFieldsInCompactPageWhenFieldsGiven() throws Exception {
+        ResultActions result = perform(mockMvc, get("/categories")
+                .param("sort", "id,asc")
+                .param("fields", "name")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").exists());
+        result.andExpect(jsonPath("$.totalPages").exists());
+        result.andExpect(jsonPath("$.pageable").doesNotExist());
+        result.andExpect(jsonPath("$.content[0].name").value("Livros"));
+        result.andExpect(jsonPath("$.content[0].id").doesNotExist());
+    }
+
+    @Test
+    public void findAllShouldOmitTotalsWhenFieldsGivenWithoutCount() throws Exception {
+        ResultActions result = perform(mockMvc, get("/categories")
+                .param("sort", "id,asc")
+                .param("fields", "id,name")
+                .param("count", "false")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").doesNotExist());
+        result.andExpect(jsonPath("$.totalPages").doesNotExist());
+        result.andExpect(jsonPath("$.last").exists());
+        result.andExpect(jsonPath("$.content[0].id").value(1L));
+        result.andExpect(jsonPath("$.content[0].name").value("Livros"));
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenFieldUnknown() throws Exception {
+        ResultActions result = perform(mockMvc, get("/categories")
+                .param("fields", "id,createdAt")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+}
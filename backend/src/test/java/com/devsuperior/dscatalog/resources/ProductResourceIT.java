@@ -1,24 +1,45 @@
 package com.devsuperior.dscatalog.resources;
 
+import com.devsuperior.dscatalog.components.ResponseCache;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.utils.Factory;
 import com.devsuperior.dscatalog.utils.TokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.devsuperior.dscatalog.utils.AsyncUtil.perform;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "async.enabled=false")
 @AutoConfigureMockMvc
 public class ProductResourceIT {
 
@@ -28,8 +49,11 @@ public class ProductResourceIT {
     private ObjectMapper objectMapper;
     @Autowired
     private TokenUtil tokenUtil;
+    @Autowired
+    private ResponseCache responseCache;
 
     private Long existentId;
+    private Long unmodifiedId;
     private Long nonExistentId;
     private Long countTotalProducts;
     private String username;
@@ -38,15 +62,24 @@ public class ProductResourceIT {
     @BeforeEach
     void setUp() throws Exception {
         existentId = 1L;
+        // No test writes to this product, so reads can rely on its seed values
+        unmodifiedId = 2L;
         nonExistentId = 1000L;
         countTotalProducts = 25L;
         username = "maria@gmail.com";
         password = "123456";
     }
 
+    @AfterEach
+    void tearDown() {
+        // @Transactional tests roll back, and a rollback invalidates nothing,
+        // so drop whatever they rendered from uncommitted rows
+        responseCache.clear();
+    }
+
     @Test
     public void findAllShouldReturnSortedPageWhenSortByName() throws Exception {
-        ResultActions result = mockMvc.perform(get("/products")
+        ResultActions result = perform(mockMvc, get("/products")
                 .param("page", "0")
                 .param("size", "12")
                 .param("sort", "name,asc")
@@ -60,6 +93,230 @@ public class ProductResourceIT {
         result.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
     }
 
+    @Test
+    public void findAllShouldReturnFacetedPageWhenFacetsRequestedWithoutCount() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products")
+                .param("facets", "true")
+                .param("count", "false")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+        result.andExpect(jsonPath("$.facets").isArray());
+    }
+
+    @Test
+    public void findAllShouldReturnFacetsInCompactPageWhenFieldsGiven() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products")
+                .param("fields", "id,name")
+                .param("facets", "true")
+                .param("count", "false")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+        result.andExpect(jsonPath("$.facets").isArray());
+        result.andExpect(jsonPath("$.facets[0].count").exists());
+        result.andExpect(jsonPath("$.pageable").doesNotExist());
+        result.andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    public void findAllShouldReturnOnlySelectedFieldsInCompactPageWhenFieldsGiven() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products")
+                .param("size", "12")
+                .param("sort", "name,asc")
+                .param("fields", "id,name,price")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+        result.andExpect(jsonPath("$.page").value(0));
+        result.andExpect(jsonPath("$.pageable").doesNotExist());
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[0].price").exists());
+        result.andExpect(jsonPath("$.content[0].description").doesNotExist());
+        result.andExpect(jsonPath("$.content[0].categories").doesNotExist());
+    }
+
+    @Test
+    public void findAllShouldOmitTotalsWhenFieldsGivenWithoutCount() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products")
+                .param("size", "12")
+                .param("sort", "name,asc")
+                .param("fields", "id,name")
+                .param("count", "false")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").doesNotExist());
+        result.andExpect(jsonPath("$.totalPages").doesNotExist());
+        result.andExpect(jsonPath("$.last").value(false));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[0].price").doesNotExist());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenFieldUnknown() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products")
+                .param("fields", "id,password")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllShouldReturnCborWhenAcceptIsCbor() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products")
+                .param("sort", "name,asc")
+                .accept("application/cbor"));
+
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentTypeCompatibleWith("application/cbor"));
+        JsonNode page = new ObjectMapper(new CBORFactory())
+                .readTree(result.andReturn().getResponse().getContentAsByteArray());
+        assertEquals(countTotalProducts.intValue(), page.get("totalElements").asInt());
+        assertEquals("Macbook Pro", page.get("content").get(0).get("name").asText());
+    }
+
+    @Test
+    public void findByIdShouldReturnSmileWhenAcceptIsSmile() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products/{id}", unmodifiedId)
+                .accept("application/x-jackson-smile"));
+
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"));
+        JsonNode product = new ObjectMapper(new SmileFactory())
+                .readTree(result.andReturn().getResponse().getContentAsByteArray());
+        assertEquals("Smart TV", product.get("name").asText());
+    }
+
+    @Test
+    public void findByIdShouldGiveEachFormatItsOwnETagAndVaryOnAccept() throws Exception {
+        MockHttpServletResponse json = perform(mockMvc, get("/products/{id}", unmodifiedId)
+                .accept(MediaType.APPLICATION_JSON)).andReturn().getResponse();
+        MockHttpServletResponse smile = perform(mockMvc, get("/products/{id}", unmodifiedId)
+                .accept("application/x-jackson-smile")).andReturn().getResponse();
+
+        String jsonETag = json.getHeader(HttpHeaders.ETAG);
+        String smileETag = smile.getHeader(HttpHeaders.ETAG);
+        assertNotEquals(jsonETag, smileETag);
+        assertTrue(json.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+        assertTrue(smile.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+
+        perform(mockMvc, get("/products/{id}", unmodifiedId)
+                .accept("application/x-jackson-smile")
+                .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"));
+        MockHttpServletResponse notModified = perform(mockMvc, get("/products/{id}", unmodifiedId)
+                .accept("application/x-jackson-smile")
+                .header(HttpHeaders.IF_NONE_MATCH, smileETag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        assertTrue(notModified.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+        assertTrue(notModified.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void findAllShouldReturnJsonWhenAcceptIsAnything() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products")
+                .accept(MediaType.ALL));
+
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void findAllShouldReturnSameGzippedBodyWhenRepeatedWithGzipAccepted() throws Exception {
+        byte[] first = perform(mockMvc, get("/products")
+                .param("sort", "name,asc")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ResultActions result = perform(mockMvc, get("/products")
+                .param("sort", "name,asc")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        byte[] second = result.andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(first, second);
+        JsonNode page = objectMapper.readTree(new GZIPInputStream(new ByteArrayInputStream(second)));
+        assertEquals(countTotalProducts.intValue(), page.get("totalElements").asInt());
+        assertEquals("Macbook Pro", page.get("content").get(0).get("name").asText());
+    }
+
+    @Test
+    public void findAllAfterShouldWalkProductsSortedByNameWithCursor() throws Exception {
+        ResultActions result = perform(mockMvc, get("/products/cursor")
+                .param("size", "2")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[1].name").value("PC Gamer"));
+        result.andExpect(jsonPath("$.nextCursor").exists());
+
+        String nextCursor = objectMapper.readTree(result.andReturn().getResponse().getContentAsString())
+                .get("nextCursor").asText();
+        perform(mockMvc, get("/products/cursor")
+                        .param("size", "2")
+                        .param("after", nextCursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("PC Gamer Alfa"));
+    }
+
+    @Test
+    public void exportShouldWriteOneJsonLinePerProduct() throws Exception {
+        String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
+
+        ResultActions result = perform(mockMvc, get("/products/export")
+                .header("Authorization", "Bearer " + accessToken));
+
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+        String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(countTotalProducts.intValue(), lines.length);
+        assertEquals(unmodifiedId.longValue(), objectMapper.readTree(lines[1]).get("id").asLong());
+        assertEquals("Smart TV", objectMapper.readTree(lines[1]).get("name").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("categories").size() > 0);
+    }
+
+    @Test
+    public void exportShouldWriteCsvWithHeaderWhenFormatIsCsv() throws Exception {
+        String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
+
+        ResultActions result = perform(mockMvc, get("/products/export").param("format", "csv")
+                .header("Authorization", "Bearer " + accessToken));
+
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentTypeCompatibleWith("text/csv"));
+        String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(countTotalProducts.intValue() + 1, lines.length);
+        assertTrue(lines[2].startsWith(unmodifiedId + ",Smart TV,"));
+    }
+
+    @Test
+    public void exportShouldReturnBadRequestWhenFormatIsUnknown() throws Exception {
+        String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
+
+        perform(mockMvc, get("/products/export").param("format", "xml")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportShouldReturnUnauthorizedWhenNoToken() throws Exception {
+        perform(mockMvc, get("/products/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
         String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
@@ -69,7 +326,7 @@ public class ProductResourceIT {
         String expectedDescription = productDTO.getDescription();
         String jsonBody = objectMapper.writeValueAsString(productDTO);
 
-        ResultActions result = mockMvc.perform(put("/products/{id}", existentId)
+        ResultActions result = perform(mockMvc, put("/products/{id}", existentId)
                 .header("Authorization", "Bearer " + accessToken)
                 .content(jsonBody)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -87,7 +344,7 @@ public class ProductResourceIT {
         ProductDTO productDTO = Factory.createProductDTO();
         String jsonBody = objectMapper.writeValueAsString(productDTO);
 
-        ResultActions result = mockMvc.perform(put("/products/{id}", nonExistentId)
+        ResultActions result = perform(mockMvc, put("/products/{id}", nonExistentId)
                 .header("Authorization", "Bearer " + accessToken)
                 .content(jsonBody)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -95,4 +352,51 @@ public class ProductResourceIT {
 
         result.andExpect(status().isNotFound());
     }
+
+    @Test
+    @Transactional
+    public void insertAllShouldReturnCreatedIdsAndValidationErrorsByPosition() throws Exception {
+        String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+        ProductDTO invalid = Factory.createProductDTO();
+        invalid.setId(null);
+        invalid.setName("");
+        String jsonBody = objectMapper.writeValueAsString(List.of(valid, invalid));
+
+        ResultActions result = perform(mockMvc, post("/products/batch")
+                .header("Authorization", "Bearer " + accessToken)
+                .content(jsonBody)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.ids[0]").exists());
+        result.andExpect(jsonPath("$.ids[1]").doesNotExist());
+        result.andExpect(jsonPath("$.errors[0].index").value(1));
+        result.andExpect(jsonPath("$.errors[0].errors[0].fieldName").value("name"));
+    }
+
+    @Test
+    @Transactional
+    public void importAllShouldImportValidCsvRowsAndReportInvalidOnes() throws Exception {
+        String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
+        String csv = "name,description,price,imgUrl,date,categoryIds\n"
+                + "Phone,\"Fast, small\",800.0,,2020-07-14T10:00:00Z,1;3\n"
+                + "Broken,Bad price,-1,,2020-07-14T10:00:00Z,1\n"
+                + "Mouse,Wireless,50.0,,2020-07-14T10:00:00Z,2\n";
+
+        ResultActions result = perform(mockMvc, post("/products/imports")
+                .header("Authorization", "Bearer " + accessToken)
+                .param("format", "csv")
+                .content(csv)
+                .contentType("text/csv"));
+
+        result.andExpect(status().isCreated());
+        result.andExpect(jsonPath("$.status").value("COMPLETED"));
+        result.andExpect(jsonPath("$.imported").value(2));
+        result.andExpect(jsonPath("$.failed").value(1));
+        result.andExpect(jsonPath("$.errors[0].index").value(1));
+        result.andExpect(jsonPath("$.errors[0].errors[0].fieldName").value("price"));
+    }
 }
@@ -1,5 +1,6 @@
 package com.devsuperior.dscatalog.resources;
 
+import com.devsuperior.dscatalog.components.ResponseCache;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.services.ProductService;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
@@ -20,6 +21,7 @@ import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 
+import static com.devsuperior.dscatalog.utils.AsyncUtil.perform;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -39,6 +41,8 @@ public class ProductResourceTests {
     private ObjectMapper objectMapper;
     @Autowired
     private TokenUtil tokenUtil;
+    @Autowired
+    private ResponseCache responseCache;
 
     private ProductDTO productDTO;
     private Long existentId;
@@ -56,7 +60,7 @@ public class ProductResourceTests {
         PageImpl<ProductDTO> page = new PageImpl<>(List.of(productDTO));
         username = "maria@gmail.com";
         password = "123456";
-        when(productService.findAllPaged(any(), any(), any())).thenReturn(page);
+        when(productService.findAllPaged(any(), any())).thenReturn(page);
         when(productService.findById(existentId)).thenReturn(productDTO);
         when(productService.findById(nonExistentId)).thenThrow(ResourceNotFoundException.class);
         when(productService.update(eq(existentId), any(ProductDTO.class))).thenReturn(productDTO);
@@ -65,26 +69,55 @@ public class ProductResourceTests {
         doNothing().when(productService).delete(existentId);
         doThrow(ResourceNotFoundException.class).when(productService).delete(nonExistentId);
         doThrow(DatabaseException.class).when(productService).delete(dependentId);
+        // The mocked service never invalidates, so drop what earlier tests cached
+        responseCache.clear();
     }
 
     @Test
     public void findAllShouldReturnPage() throws Exception {
-        ResultActions result = mockMvc.perform(get("/products")
+        ResultActions result = perform(mockMvc, get("/products")
                 .accept(MediaType.APPLICATION_JSON));
         result.andExpect(status().isOk());
     }
 
     @Test
     public void findByIdShouldReturnProductWhenIdExists() throws Exception {
-        ResultActions result = mockMvc.perform(get("/products/{id}", existentId)
+        ResultActions result = perform(mockMvc, get("/products/{id}", existentId)
                 .accept(MediaType.APPLICATION_JSON));
         result.andExpect(status().isOk());
         result.andExpect(jsonPath("$.id").exists());
     }
 
+    @Test
+    public void findByIdShouldReturnNotModifiedWithoutLoadingProductWhenETagMatches() throws Exception {
+        String etag = perform(mockMvc, get("/products/{id}", existentId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        ResultActions result = perform(mockMvc, get("/products/{id}", existentId)
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON));
+        result.andExpect(status().isNotModified());
+        verify(productService, times(1)).findById(existentId);
+    }
+
+    @Test
+    public void findByIdShouldServeRepeatedRequestFromResponseCache() throws Exception {
+        perform(mockMvc, get("/products/{id}", existentId)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        ResultActions result = perform(mockMvc, get("/products/{id}", existentId)
+                .accept(MediaType.APPLICATION_JSON));
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.name").value(productDTO.getName()));
+        verify(productService, times(1)).findById(existentId);
+    }
+
     @Test
     public void findByIdShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
-        ResultActions result = mockMvc.perform(get("/products/{id}", nonExistentId)
+        ResultActions result = perform(mockMvc, get("/products/{id}", nonExistentId)
                 .accept(MediaType.APPLICATION_JSON));
         result.andExpect(status().isNotFound());
     }
@@ -93,7 +126,7 @@ public class ProductResourceTests {
     public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
         String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
         String jsonBody = objectMapper.writeValueAsString(productDTO);
-        ResultActions result = mockMvc.perform(put("/products/{id}", existentId)
+        ResultActions result = perform(mockMvc, put("/products/{id}", existentId)
                 .header("Authorization", "Bearer " + accessToken)
                 .content(jsonBody)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -108,7 +141,7 @@ public class ProductResourceTests {
     public void updateShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
         String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
         String jsonBody = objectMapper.writeValueAsString(productDTO);
-        ResultActions result = mockMvc.perform(put("/products/{id}", nonExistentId)
+        ResultActions result = perform(mockMvc, put("/products/{id}", nonExistentId)
                 .header("Authorization", "Bearer " + accessToken)
                 .content(jsonBody)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -119,7 +152,7 @@ public class ProductResourceTests {
     @Test
     public void deleteShouldReturnNoContentWhenIdExists() throws Exception {
         String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
-        ResultActions result = mockMvc.perform(delete("/products/{id}", existentId)
+        ResultActions result = perform(mockMvc, delete("/products/{id}", existentId)
                 .header("Authorization", "Bearer " + accessToken)
                 .accept(MediaType.APPLICATION_JSON));
         result.andExpect(status().isNoContent());
@@ -128,7 +161,7 @@ public class ProductResourceTests {
     @Test
     public void deleteShouldReturnNotFoundIdDoesNotExist() throws Exception {
         String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
-        ResultActions result = mockMvc.perform(delete("/products/{id}", nonExistentId)
+        ResultActions result = perform(mockMvc, delete("/products/{id}", nonExistentId)
                 .header("Authorization", "Bearer " + accessToken)
                 .accept(MediaType.APPLICATION_JSON));
         result.andExpect(status().isNotFound());
@@ -137,7 +170,7 @@ public class ProductResourceTests {
     @Test
     public void deleteShouldReturnBadRequestWhenDependentId() throws Exception {
         String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
-        ResultActions result = mockMvc.perform(delete("/products/{id}", dependentId)
+        ResultActions result = perform(mockMvc, delete("/products/{id}", dependentId)
                 .header("Authorization", "Bearer " + accessToken)
                 .accept(MediaType.APPLICATION_JSON));
         result.andExpect(status().isBadRequest());
@@ -147,7 +180,7 @@ public class ProductResourceTests {
     public void insertShouldReturnProductDTOAndHttpStatusCreated() throws Exception {
         String accessToken = tokenUtil.obtainAccessToken(mockMvc, username, password);
         String jsonBody = objectMapper.writeValueAsString(productDTO);
-        ResultActions result = mockMvc.perform(post("/products")
+        ResultActions result = perform(mockMvc, post("/products")
                 .header("Authorization", "Bearer " + accessToken)
                 .content(jsonBody)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,78 @@
+package com.devsuperior.dscatalog.resources;
+
+import com.devsuperior.dscatalog.utils.TokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static com.devsuperior.dscatalog.utils.AsyncUtil.perform;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "async.enabled=false")
+@AutoConfigureMockMvc
+public class UserResourceIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        accessToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+    }
+
+    @Test
+    public void findAllShouldReturnOnlySelectedFieldsWithoutRolesWhenRolesNotSelected() throws Exception {
+        ResultActions result = perform(mockMvc, get("/users")
+                .header("Authorization", "Bearer " + accessToken)
+                .param("sort", "id,asc")
+                .param("fields", "id,email")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").exists());
+        result.andExpect(jsonPath("$.pageable").doesNotExist());
+        result.andExpect(jsonPath("$.content[0].email").value("alex@gmail.com"));
+        result.andExpect(jsonPath("$.content[0].firstName").doesNotExist());
+        result.andExpect(jsonPath("$.content[0].roles").doesNotExist());
+    }
+
+    @Test
+    public void findAllShouldReturnRolesWhenRolesSelected() throws Exception {
+        ResultActions result = perform(mockMvc, get("/users")
+                .header("Authorization", "Bearer " + accessToken)
+                .param("sort", "id,asc")
+                .param("fields", "email,roles")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content[1].email").value("maria@gmail.com"));
+        result.andExpect(jsonPath("$.content[1].roles.length()").value(2));
+    }
+
+    @Test
+    public void findAllShouldOmitTotalsWhenFieldsGivenWithoutCount() throws Exception {
+        ResultActions result = perform(mockMvc, get("/users")
+                .header("Authorization", "Bearer " + accessToken)
+                .param("sort", "id,asc")
+                .param("fields", "id,firstName")
+                .param("count", "false")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").doesNotExist());
+        result.andExpect(jsonPath("$.totalPages").doesNotExist());
+        result.andExpect(jsonPath("$.last").exists());
+        result.andExpect(jsonPath("$.content[0].firstName").value("Alex"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscatalog.seed;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class ZipfDistributionTests {
+
+    @Test
+    public void sampleShouldFavorLowRanksWhenExponentPositive() {
+        int[] counts = sample(new ZipfDistribution(100, 1.0), 100000);
+
+        Assertions.assertTrue(counts[0] > counts[1]);
+        Assertions.assertTrue(counts[1] > counts[9]);
+        Assertions.assertTrue(counts[9] > counts[99]);
+    }
+
+    @Test
+    public void sampleShouldBeUniformWhenExponentZero() {
+        int[] counts = sample(new ZipfDistribution(4, 0.0), 100000);
+
+        for (int count : counts) {
+            Assertions.assertEquals(25000, count, 1000);
+        }
+    }
+
+    @Test
+    public void constructorShouldThrowIllegalArgumentExceptionWhenEmpty() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+    }
+
+    private static int[] sample(ZipfDistribution zipf, int draws) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[zipf.size()];
+        for (int i = 0; i < draws; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        return counts;
+    }
+}
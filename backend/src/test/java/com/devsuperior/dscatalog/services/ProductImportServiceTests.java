@@ -0,0 +1,120 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(SpringExtension.class)
+public class ProductImportServiceTests {
+
+    @InjectMocks
+    private ProductImportService service;
+
+    @Mock
+    private ProductService productService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private List<ProductDTO> inserted;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inserted = new ArrayList<>();
+        Mockito.when(productService.insertAll(any())).thenAnswer(invocation -> {
+            List<ProductDTO> batch = invocation.getArgument(0);
+            BatchResultDTO result = new BatchResultDTO();
+            for (ProductDTO dto : batch) {
+                inserted.add(dto);
+                result.getIds().add((long) inserted.size());
+            }
+            return result;
+        });
+    }
+
+    @Test
+    public void importAllShouldReadGzippedNdjson() throws IOException {
+        String ndjson = "{\"name\":\"Phone\",\"price\":800.0,\"date\":\"2020-07-14T10:00:00Z\"}\n"
+                + "\n"
+                + "{\"name\":\"Mouse\",\"price\":50.0,\"date\":\"2020-07-14T10:00:00Z\"}\n";
+
+        ProductImportDTO result = service.importAll(ProductExportService.NDJSON, gzip(ndjson));
+
+        Assertions.assertEquals(ProductImportDTO.COMPLETED, result.getStatus());
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals("Mouse", inserted.get(1).getName());
+    }
+
+    @Test
+    public void importAllShouldKeepNewlinesInsideQuotedCsvFields() {
+        String csv = "name,description,price,date\n"
+                + "Phone,\"Fast,\nsmall\",800.0,2020-07-14T10:00:00Z\n"
+                + "Mouse,Wireless,50.0,2020-07-14T10:00:00Z\n";
+
+        ProductImportDTO result = service.importAll(ProductExportService.CSV, stream(csv));
+
+        Assertions.assertEquals(ProductImportDTO.COMPLETED, result.getStatus());
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals("Fast,\nsmall", inserted.get(0).getDescription());
+        Assertions.assertEquals("Mouse", inserted.get(1).getName());
+    }
+
+    @Test
+    public void importAllShouldSkipNdjsonLineLongerThanLimit() {
+        String ndjson = "{\"name\":\"" + "x".repeat(70_000) + "\"}\n"
+                + "{\"name\":\"Mouse\",\"price\":50.0,\"date\":\"2020-07-14T10:00:00Z\"}\n";
+
+        ProductImportDTO result = service.importAll(ProductExportService.NDJSON, stream(ndjson));
+
+        Assertions.assertEquals(ProductImportDTO.COMPLETED, result.getStatus());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(0, result.getErrors().get(0).getIndex());
+        Assertions.assertEquals("Mouse", inserted.get(0).getName());
+    }
+
+    @Test
+    public void importAllShouldFailWhenCsvQuoteIsNeverClosed() {
+        String csv = "name,description,price,date\n"
+                + "Phone,\"Fast" + ",small\n".repeat(10_000);
+
+        ProductImportDTO result = service.importAll(ProductExportService.CSV, stream(csv));
+
+        Assertions.assertEquals(ProductImportDTO.FAILED, result.getStatus());
+        Assertions.assertTrue(result.getMessage().contains("longer than"));
+        Assertions.assertTrue(inserted.isEmpty());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream gzip(String content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
@@ -1,8 +1,12 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.dto.FacetedPageDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductFilterDTO;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +17,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @SpringBootTest
 @Transactional
 public class ProductServiceIT {
@@ -21,6 +28,8 @@ public class ProductServiceIT {
     private ProductService productService;
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private MeterRegistry registry;
 
     private Long existentId;
     private Long nonExistentId;
@@ -47,7 +56,7 @@ public class ProductServiceIT {
     @Test
     public void findAllPagedShouldReturnPageWhenPageExists() {
         PageRequest pageRequest = PageRequest.of(0, 10);
-        Page<ProductDTO> result = productService.findAllPaged(pageRequest, 0L, "");
+        Page<ProductDTO> result = productService.findAllPaged(pageRequest, new ProductFilterDTO(List.of(), "any", ""));
         Assertions.assertTrue(result.hasContent());
         Assertions.assertEquals(result.getNumber(), pageRequest.getPageNumber());
         Assertions.assertEquals(result.getSize(), pageRequest.getPageSize());
@@ -57,17 +66,84 @@ public class ProductServiceIT {
     @Test
     public void findAllPagedShouldReturnEmptyPageWhenPageDoesNotExist() {
         PageRequest pageRequest = PageRequest.of(50, 10);
-        Page<ProductDTO> result = productService.findAllPaged(pageRequest, 0L, "");
+        Page<ProductDTO> result = productService.findAllPaged(pageRequest, new ProductFilterDTO(List.of(), "any", ""));
         Assertions.assertTrue(result.isEmpty());
     }
 
     @Test
     public void findAllPagedShouldReturnSortedPageWhenSortByName() {
         PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("name"));
-        Page<ProductDTO> result = productService.findAllPaged(pageRequest, 0L, "");
+        Page<ProductDTO> result = productService.findAllPaged(pageRequest, new ProductFilterDTO(List.of(), "any", ""));
         Assertions.assertTrue(result.hasContent());
         Assertions.assertEquals("Macbook Pro", result.getContent().get(0).getName());
         Assertions.assertEquals("PC Gamer", result.getContent().get(1).getName());
         Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
     }
+
+    @Test
+    public void findAllPagedShouldReturnProductsWhoseNameContainsTextIgnoringCase() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("name"));
+        Page<ProductDTO> result = productService.findAllPaged(pageRequest, new ProductFilterDTO(List.of(), "any", "gAmEr a"));
+        Assertions.assertEquals(1L, result.getTotalElements());
+        Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(0).getName());
+    }
+
+    @Test
+    public void findAllPagedShouldReturnProductsInAnyCategoryWhenModeIsAny() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id"));
+        Page<ProductDTO> result = productService.findAllPaged(pageRequest, new ProductFilterDTO(List.of(1L, 2L), "any", ""));
+        Assertions.assertEquals(List.of(1L, 2L, 5L),
+                result.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void findAllPagedShouldReturnProductsInAllCategoriesWhenModeIsAll() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ProductDTO> result = productService.findAllPaged(pageRequest, new ProductFilterDTO(List.of(1L, 3L), "all", ""));
+        Assertions.assertEquals(1L, result.getTotalElements());
+        Assertions.assertEquals(2L, result.getContent().get(0).getId());
+    }
+
+    @Test
+    public void findAllFacetedShouldCountMatchingProductsPerCategory() {
+        FacetedPageDTO<ProductDTO> result = productService.findAllFaceted(PageRequest.of(0, 10),
+                new ProductFilterDTO(List.of(), "any", ""));
+        Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+        Assertions.assertEquals(1L, result.getFacets().get(0).getCount());
+        Assertions.assertEquals(2L, result.getFacets().get(1).getCount());
+    }
+
+    @Test
+    public void findAllPagedShouldReturnProductsWithinPriceRangeSortedByPrice() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price"));
+        ProductFilterDTO filter = new ProductFilterDTO(List.of(), "any", "");
+        filter.setMinPrice(1200.0);
+        filter.setMaxPrice(1300.0);
+        Page<ProductDTO> result = productService.findAllPaged(pageRequest, filter);
+        Assertions.assertEquals(List.of("PC Gamer Turbo", "Macbook Pro", "PC Gamer"),
+                result.getContent().stream().map(ProductDTO::getName).collect(Collectors.toList()));
+        Assertions.assertEquals(3L, result.getTotalElements());
+    }
+
+    @Test
+    public void findByIdShouldRecordServiceAndRepositoryCallsTaggedByClassMethodAndException() {
+        long found = callCount("service.calls", "ProductService", "findById", "none");
+        long notFound = callCount("service.calls", "ProductService", "findById", "ResourceNotFoundException");
+        long repositoryFound = callCount("repository.calls", "ProductRepository", "findById", "none");
+
+        productService.findById(existentId);
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> productService.findById(nonExistentId));
+
+        Assertions.assertEquals(found + 1, callCount("service.calls", "ProductService", "findById", "none"));
+        Assertions.assertEquals(notFound + 1,
+                callCount("service.calls", "ProductService", "findById", "ResourceNotFoundException"));
+        Assertions.assertEquals(repositoryFound + 2,
+                callCount("repository.calls", "ProductRepository", "findById", "none"));
+    }
+
+    private long callCount(String name, String className, String method, String exception) {
+        Timer timer = registry.find(name).tag("class", className).tag("method", method)
+                .tag("exception", exception).timer();
+        return timer != null ? timer.count() : 0L;
+    }
 }
@@ -1,10 +1,24 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.components.CategoryRegistry;
+import com.devsuperior.dscatalog.components.PageCountCache;
+import com.devsuperior.dscatalog.components.ProductCategoryIndex;
+import com.devsuperior.dscatalog.components.ProductETagCache;
+import com.devsuperior.dscatalog.components.ProductNameIndex;
+import com.devsuperior.dscatalog.components.ProductRangeIndex;
+import com.devsuperior.dscatalog.components.ResponseCache;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.FacetedPageDTO;
+import com.devsuperior.dscatalog.dto.FieldSelection;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductFilterDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
-import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.utils.Factory;
@@ -21,13 +35,29 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.validation.Validator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 @ExtendWith(SpringExtension.class)
 public class ProductServiceTests {
@@ -38,12 +68,29 @@ public class ProductServiceTests {
     @Mock
     private ProductRepository productRepository;
     @Mock
-    private CategoryRepository categoryRepository;
+    private CategoryRegistry categoryRegistry;
+    @Mock
+    private ProductNameIndex nameIndex;
+    @Mock
+    private ProductCategoryIndex categoryIndex;
+    @Mock
+    private ProductRangeIndex rangeIndex;
+    @Mock
+    private PageCountCache countCache;
+    @Mock
+    private ProductETagCache etags;
+    @Mock
+    private ResponseCache responseCache;
+    @Mock
+    private Validator validator;
+    @Mock
+    private EntityManager entityManager;
 
     private Long existentId;
     private Long nonExistentId;
     private Long dependentId;
     private PageImpl<Product> page;
+    private PageImpl<ProductDTO> dtoPage;
     private Product product;
     ProductDTO productDTO;
     private Category category;
@@ -57,10 +104,32 @@ public class ProductServiceTests {
         category = Factory.createCategory();
         page = new PageImpl<>(List.of(product));
         productDTO = Factory.createProductDTO();
+        dtoPage = new PageImpl<>(List.of(new ProductDTO(product)));
 
         // findAll paged
         Mockito.when(productRepository.findAll(any(Pageable.class))).thenReturn(page);
-        Mockito.when(productRepository.find(any(),any(), any())).thenReturn(page);
+        Mockito.when(productRepository.find(any(), any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any())).thenReturn(dtoPage);
+        // name index
+        BitSet namedPhone = new BitSet();
+        namedPhone.set(existentId.intValue());
+        Mockito.when(nameIndex.search(eq("phone"), anyInt())).thenReturn(Optional.of(namedPhone));
+        Mockito.when(nameIndex.search(eq("tablet"), anyInt())).thenReturn(Optional.of(new BitSet()));
+        // category index
+        BitSet inBothCategories = new BitSet();
+        inBothCategories.set(existentId.intValue());
+        Mockito.when(categoryIndex.match(List.of(1L, 2L), true)).thenReturn(Optional.of(inBothCategories));
+        BitSet inAnyCategory = new BitSet();
+        inAnyCategory.set(1, 5000);
+        Mockito.when(categoryIndex.match(List.of(1L, 3L), false)).thenReturn(Optional.of(inAnyCategory));
+        Product otherProduct = Factory.createProduct();
+        otherProduct.setId(2L);
+        Mockito.when(productRepository.findAfter(any(), any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any(), any(), any()))
+                .thenReturn(List.of(new ProductDTO(product), new ProductDTO(otherProduct)));
+        ProductCategoryProjection productCategory = Mockito.mock(ProductCategoryProjection.class);
+        Mockito.when(productCategory.getProductId()).thenReturn(existentId);
+        Mockito.when(productCategory.getId()).thenReturn(category.getId());
+        Mockito.when(productCategory.getName()).thenReturn(category.getName());
+        Mockito.when(productRepository.findCategories(any())).thenReturn(List.of(productCategory));
         // save
         Mockito.when(productRepository.save(any(Product.class))).thenReturn(product);
         //findById
@@ -69,10 +138,11 @@ public class ProductServiceTests {
         Mockito.when(productRepository.findById(nonExistentId)).thenReturn(Optional.empty());
         // update sucessful
         Mockito.when(productRepository.getOne(existentId)).thenReturn(product);
-        Mockito.when(categoryRepository.getOne(existentId)).thenReturn(category);
+        Mockito.when(categoryRegistry.getReference(existentId)).thenReturn(category);
+        Mockito.when(categoryRegistry.getReference(category.getId())).thenReturn(category);
         // update with nonexistent id
         Mockito.when(productRepository.getOne(nonExistentId)).thenThrow(EntityNotFoundException.class);
-        Mockito.when(categoryRepository.getOne(nonExistentId)).thenThrow(EntityNotFoundException.class);
+        Mockito.when(categoryRegistry.getReference(nonExistentId)).thenThrow(ResourceNotFoundException.class);
         // successful delete
         Mockito.doNothing().when(productRepository).deleteById(existentId);
         // delete with nonexistent id
@@ -84,10 +154,195 @@ public class ProductServiceTests {
     @Test
     public void findAllPagedShouldReturnPage() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<ProductDTO> result = service.findAllPaged(pageable, 0L, "");
+        Page<ProductDTO> result = service.findAllPaged(pageable, filterByName(""));
         Assertions.assertNotNull(result);
     }
 
+    @Test
+    public void findAllPagedShouldAttachCategoriesFromProjection() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductDTO> result = service.findAllPaged(pageable, filterByName(""));
+        Assertions.assertEquals(category.getName(), result.getContent().get(0).getCategories().get(0).getName());
+        Mockito.verify(productRepository).findCategories(Set.of(existentId));
+    }
+
+    @Test
+    public void findAllPagedShouldReadNeitherDescriptionNorCategoriesWhenNotSelected() {
+        Mockito.when(productRepository.findSummaries(any(), any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any())).thenReturn(dtoPage);
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductDTO> result = service.findAllPaged(pageable, filterByName(""),
+                FieldSelection.of("id,name,price,imgUrl", ProductDTO.FIELDS));
+        Assertions.assertFalse(result.isEmpty());
+        Mockito.verify(productRepository, Mockito.never()).find(any(), any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+        Mockito.verify(productRepository, Mockito.never()).findCategories(any());
+    }
+
+    @Test
+    public void findAllPagedShouldFilterByIndexedIdsWhenNameIsIndexed() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductDTO> result = service.findAllPaged(pageable, filterByName("phone"));
+        Assertions.assertFalse(result.isEmpty());
+        verifyFind(pageable, null, 0L, Set.of(existentId), "");
+    }
+
+    @Test
+    public void findAllPagedShouldReturnEmptyPageWithoutQueryWhenIndexHasNoMatch() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductDTO> result = service.findAllPaged(pageable, filterByName("tablet"));
+        Assertions.assertTrue(result.isEmpty());
+        Mockito.verify(productRepository, Mockito.never()).find(any(), any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void findAllPagedShouldFilterByNameInDatabaseWhenIndexCannotAnswer() {
+        Pageable pageable = PageRequest.of(0, 10);
+        service.findAllPaged(pageable, filterByName("ph"));
+        verifyFind(pageable, null, 0L, null, "ph");
+    }
+
+    @Test
+    public void findAllPagedShouldTakeTotalFromCountCacheWhenPageIsFull() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Mockito.when(countCache.get(eq("products:[]:any::null:null:null:null"), any())).thenReturn(25L);
+        Page<ProductDTO> result = service.findAllPaged(pageable, filterByName(""));
+        Assertions.assertEquals(25L, result.getTotalElements());
+        Mockito.verify(productRepository, Mockito.never()).countFiltered(any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void findAllSlicedShouldNotCountProducts() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Slice<ProductDTO> result = service.findAllSliced(pageable, filterByName(""));
+        Assertions.assertTrue(result.hasContent());
+        Mockito.verify(countCache, Mockito.never()).get(anyString(), any());
+        Mockito.verify(productRepository, Mockito.never()).countFiltered(any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void findAllPagedShouldFilterByCategoryBitmapsWhenAllCategoriesAreRequired() {
+        Pageable pageable = PageRequest.of(0, 10);
+        service.findAllPaged(pageable, new ProductFilterDTO(List.of(2L, 1L), "all", ""));
+        verifyFind(pageable, null, 0L, Set.of(existentId), "");
+    }
+
+    @Test
+    public void findAllPagedShouldIntersectCategoryBitmapsWithIndexedName() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductDTO> result = service.findAllPaged(pageable, new ProductFilterDTO(List.of(1L, 3L), "any", "tablet"));
+        Assertions.assertTrue(result.isEmpty());
+        Mockito.verify(productRepository, Mockito.never()).find(any(), any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void findAllPagedShouldFilterByCategoriesInDatabaseWhenBitmapMatchesTooManyProducts() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ProductFilterDTO filter = new ProductFilterDTO(List.of(3L), "any", "");
+        filter.setCategoryId(1L);
+        service.findAllPaged(pageable, filter);
+        verifyFind(pageable, List.of(1L, 3L), 0L, null, "");
+    }
+
+    @Test
+    public void findAllPagedShouldSortByPriceFromRangeIndexWhenFiltersAreResolvedInMemory() {
+        BitSet categorized = new BitSet();
+        categorized.set(1, 3);
+        Mockito.when(categoryIndex.categorized()).thenReturn(Optional.of(categorized));
+        Mockito.when(rangeIndex.top(eq("price"), eq(true), any(), eq(0L), eq(1))).thenReturn(Optional.of(new long[] {existentId}));
+        Mockito.when(productRepository.findByIds(List.of(existentId))).thenReturn(List.of(new ProductDTO(product)));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "price"));
+        Page<ProductDTO> result = service.findAllPaged(pageable, filterByName(""));
+        Assertions.assertEquals(2L, result.getTotalElements());
+        Assertions.assertEquals(existentId, result.getContent().get(0).getId());
+        Mockito.verify(productRepository, Mockito.never()).find(any(), any(), anyLong(), any(), any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+        Mockito.verify(countCache, Mockito.never()).get(anyString(), any());
+    }
+
+    @Test
+    public void findAllPagedShouldFilterByPriceInDatabaseWhenRangeIndexIsNotLoaded() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ProductFilterDTO filter = filterByName("");
+        filter.setMinPrice(100.0);
+        service.findAllPaged(pageable, filter);
+        Mockito.verify(productRepository).find(eq(pageable), isNull(), eq(0L), isNull(), eq(""),
+                eq(true), eq(100.0), eq(Double.MAX_VALUE), eq(false), any(), any());
+    }
+
+    @Test
+    public void findAllFacetedShouldCountCategoriesFromBitmapsWithoutQueries() {
+        Mockito.when(categoryRegistry.findAll(any(Sort.class))).thenReturn(Optional.of(List.of(new CategoryDTO(category))));
+        Mockito.when(categoryIndex.countByCategory(any(BitSet.class))).thenReturn(Optional.of(Map.of(category.getId(), 1L)));
+        FacetedPageDTO<ProductDTO> result = service.findAllFaceted(PageRequest.of(0, 10), filterByName("phone"));
+        Assertions.assertEquals(1, result.getFacets().size());
+        Assertions.assertEquals(1L, result.getFacets().get(0).getCount());
+        Mockito.verify(productRepository, Mockito.never()).countByCategory(any(), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void findAllFacetedShouldCountCategoriesInDatabaseWhenIndexIsNotLoaded() {
+        Mockito.when(categoryRegistry.findAll(any(Sort.class))).thenReturn(Optional.of(List.of(new CategoryDTO(category))));
+        FacetedPageDTO<ProductDTO> result = service.findAllFaceted(PageRequest.of(0, 10), filterByName("ph"));
+        Assertions.assertEquals(0L, result.getFacets().get(0).getCount());
+        Mockito.verify(productRepository).countByCategory(eq("ph"), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void findAllPagedShouldThrowBadRequestExceptionWhenModeIsInvalid() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Assertions.assertThrows(BadRequestException.class,
+                () -> service.findAllPaged(pageable, new ProductFilterDTO(List.of(1L), "none", "")));
+    }
+
+    @Test
+    public void updateShouldIndexProductCategories() {
+        service.update(existentId, productDTO);
+        Mockito.verify(categoryIndex).put(eq(product.getId()), any());
+    }
+
+    @Test
+    public void updateShouldInvalidateProductCountsAndETag() {
+        service.update(existentId, productDTO);
+        Mockito.verify(countCache).invalidate("products:");
+        Mockito.verify(etags).evict(existentId);
+    }
+
+    @Test
+    public void deleteShouldInvalidateCachedProductResponses() {
+        service.delete(existentId);
+        Mockito.verify(responseCache).invalidate(ResponseCache.PRODUCTS);
+    }
+
+    @Test
+    public void findAllAfterShouldReturnNextCursorWhenMoreProductsExist() {
+        CursorPageDTO<ProductDTO> result = service.findAllAfter("", 1, filterByName(""));
+        Assertions.assertEquals(1, result.getContent().size());
+        Assertions.assertNotNull(result.getNextCursor());
+
+        service.findAllAfter(result.getNextCursor(), 1, filterByName(""));
+        Mockito.verify(productRepository).findAfter(eq(PageRequest.of(0, 2)), isNull(), eq(0L), isNull(), eq(""), anyBoolean(), anyDouble(), anyDouble(), anyBoolean(), any(), any(),
+                eq(product.getName()), eq(product.getId()));
+    }
+
+    @Test
+    public void findAllAfterShouldReturnNoCursorOnLastPage() {
+        CursorPageDTO<ProductDTO> result = service.findAllAfter("", 10, filterByName(""));
+        Assertions.assertEquals(2, result.getContent().size());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void findAllAfterShouldThrowBadRequestExceptionWhenCursorIsInvalid() {
+        Assertions.assertThrows(BadRequestException.class, () -> service.findAllAfter("not a cursor", 10, filterByName("")));
+    }
+
+    private void verifyFind(Pageable pageable, List<Long> categoryIds, long categoryCount, Set<Long> ids, String name) {
+        Mockito.verify(productRepository).find(eq(pageable), eq(categoryIds), eq(categoryCount), eq(ids), eq(name),
+                eq(false), anyDouble(), anyDouble(), eq(false), any(), any());
+    }
+
+    private static ProductFilterDTO filterByName(String name) {
+        return new ProductFilterDTO(List.of(), ProductFilterDTO.MODE_ANY, name);
+    }
+
     @Test
     public void findByIdShouldReturnProductDTOWhenIdExists() {
         ProductDTO result = service.findById(existentId);
@@ -114,6 +369,50 @@ public class ProductServiceTests {
         Mockito.verify(productRepository).getOne(nonExistentId);
     }
 
+    @Test
+    public void insertShouldThrowResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+        productDTO.getCategories().get(0).setId(nonExistentId);
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> service.insert(productDTO));
+        Mockito.verify(productRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    public void insertAllShouldReturnIdsAndReportInvalidItemsByPosition() {
+        Mockito.when(categoryRegistry.findById(category.getId())).thenReturn(Optional.of(new CategoryDTO(category)));
+        ProductDTO unknownCategory = Factory.createProductDTO();
+        unknownCategory.getCategories().get(0).setId(nonExistentId);
+
+        BatchResultDTO result = service.insertAll(List.of(productDTO, unknownCategory));
+
+        Assertions.assertEquals(Arrays.asList(product.getId(), null), result.getIds());
+        Assertions.assertEquals(1, result.getErrors().size());
+        Assertions.assertEquals(1, result.getErrors().get(0).getIndex());
+        Assertions.assertEquals("categories", result.getErrors().get(0).getErrors().get(0).getFieldName());
+        Mockito.verify(productRepository, Mockito.times(1)).save(any());
+    }
+
+    @Test
+    public void insertAllShouldFlushAndClearEveryFiftyProducts() {
+        Mockito.when(categoryRegistry.findById(category.getId())).thenReturn(Optional.of(new CategoryDTO(category)));
+        service.insertAll(Collections.nCopies(120, productDTO));
+        Mockito.verify(productRepository, Mockito.times(2)).flush();
+        Mockito.verify(entityManager, Mockito.times(2)).clear();
+    }
+
+    @Test
+    public void insertAllShouldUpdateRangeIndexAndCountsOncePerBatch() {
+        Mockito.when(categoryRegistry.findById(category.getId())).thenReturn(Optional.of(new CategoryDTO(category)));
+        service.insertAll(Collections.nCopies(120, productDTO));
+        Mockito.verify(rangeIndex, Mockito.times(1)).putAll(any(), any(), any());
+        Mockito.verify(countCache, Mockito.times(1)).invalidate("products:");
+    }
+
+    @Test
+    public void insertAllShouldThrowBadRequestExceptionWhenBatchIsTooLarge() {
+        Assertions.assertThrows(BadRequestException.class, () -> service.insertAll(Collections.nCopies(1001, productDTO)));
+        Mockito.verify(productRepository, Mockito.never()).save(any());
+    }
+
     @Test
     public void deleteShouldDoNothingWhenIdExists() {
         Assertions.assertDoesNotThrow(() -> service.delete(existentId));
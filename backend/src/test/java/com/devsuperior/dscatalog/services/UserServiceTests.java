@@ -0,0 +1,87 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.components.EmailBloomFilter;
+import com.devsuperior.dscatalog.components.PageCountCache;
+import com.devsuperior.dscatalog.dto.FieldSelection;
+import com.devsuperior.dscatalog.dto.UserDTO;
+import com.devsuperior.dscatalog.projections.UserRoleProjection;
+import com.devsuperior.dscatalog.repositories.RoleRepository;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(SpringExtension.class)
+public class UserServiceTests {
+
+    @InjectMocks
+    private UserService service;
+
+    @Mock
+    private UserRepository repository;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private PageCountCache countCache;
+    @Mock
+    private EmailBloomFilter emails;
+
+    private Pageable pageable;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pageable = PageRequest.of(0, 10);
+        Slice<UserDTO> users = new SliceImpl<>(List.of(
+                new UserDTO(1L, "Alex", "Brown", "alex@gmail.com"),
+                new UserDTO(2L, "Maria", "Green", "maria@gmail.com")), pageable, false);
+        Mockito.when(repository.findAllBy(pageable)).thenReturn(users);
+        UserRoleProjection role = Mockito.mock(UserRoleProjection.class);
+        Mockito.when(role.getUserId()).thenReturn(2L);
+        Mockito.when(role.getId()).thenReturn(2L);
+        Mockito.when(role.getAuthority()).thenReturn("ROLE_ADMIN");
+        Mockito.when(repository.findRoles(any())).thenReturn(List.of(role));
+    }
+
+    @Test
+    public void findAllSlicedShouldNotReadRolesWhenRolesNotSelected() {
+        Slice<UserDTO> result = service.findAllSliced(pageable, FieldSelection.of("id,email", UserDTO.FIELDS));
+
+        Assertions.assertEquals(2, result.getNumberOfElements());
+        Assertions.assertTrue(result.getContent().get(1).getRoles().isEmpty());
+        Mockito.verify(repository, Mockito.never()).findRoles(any());
+    }
+
+    @Test
+    public void findAllPagedShouldNotReadRolesWhenRolesNotSelected() {
+        Page<UserDTO> result = service.findAllPaged(pageable, FieldSelection.of("firstName", UserDTO.FIELDS));
+
+        Assertions.assertEquals(2L, result.getTotalElements());
+        Mockito.verify(repository, Mockito.never()).findRoles(any());
+    }
+
+    @Test
+    public void findAllSlicedShouldReadRolesOnceForWholePageWhenRolesSelected() {
+        Slice<UserDTO> result = service.findAllSliced(pageable, FieldSelection.of("email,roles", UserDTO.FIELDS));
+
+        Assertions.assertTrue(result.getContent().get(0).getRoles().isEmpty());
+        Assertions.assertEquals("ROLE_ADMIN", result.getContent().get(1).getRoles().iterator().next().getAuthority());
+        Mockito.verify(repository, Mockito.times(1)).findRoles(any());
+    }
+}
@@ -0,0 +1,24 @@
+package com.devsuperior.dscatalog.utils;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+public class AsyncUtil {
+
+    /**
+     * Performs the request and, when the handler went async, waits for its
+     * result and performs the async dispatch that writes the response.
+     */
+    public static ResultActions perform(MockMvc mockMvc, RequestBuilder request) throws Exception {
+        ResultActions result = mockMvc.perform(request);
+        MvcResult mvcResult = result.andReturn();
+        if (mvcResult.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(mvcResult));
+        }
+        return result;
+    }
+}
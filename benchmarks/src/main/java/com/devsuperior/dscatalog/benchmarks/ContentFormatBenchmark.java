@@ -0,0 +1,109 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes and decodes a Page<ProductDTO> as JSON, CBOR and Smile, the
+ * formats GET /products negotiates through Accept. writeProductPage also
+ * reports the encoded size of the page as the encodedBytes counter, next to
+ * the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContentFormatBenchmark {
+
+    private static final long TOTAL_ELEMENTS = 10000L;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"12", "100"})
+    private int pageSize;
+
+    @Param({"3"})
+    private int categoriesPerProduct;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductDTO> products;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Fixtures.objectMapper(factoryOf(format));
+        products = new PageImpl<>(Fixtures.products(pageSize, categoriesPerProduct).stream()
+                .map(product -> new ProductDTO(product, product.getCategories()))
+                .collect(Collectors.toList()), PageRequest.of(0, pageSize), TOTAL_ELEMENTS);
+        encoded = objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] writeProductPage(EncodedSize size) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(products);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ProductPage readProductPage() throws IOException {
+        return objectMapper.readValue(encoded, ProductPage.class);
+    }
+
+    private static JsonFactory factoryOf(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    /**
+     * Size of the last page written by the thread. It is assigned rather than
+     * added up, so the reported events are the bytes of one page.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long encodedBytes;
+    }
+
+    /**
+     * What a client maps the page to; the pageable and sort blocks are
+     * skipped as unknown properties.
+     */
+    public static class ProductPage {
+        public List<ProductDTO> content;
+        public long totalElements;
+        public int totalPages;
+    }
+}
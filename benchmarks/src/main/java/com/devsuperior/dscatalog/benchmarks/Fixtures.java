@@ -0,0 +1,84 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.entities.Role;
+import com.devsuperior.dscatalog.entities.User;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the benchmark inputs from a fixed seed, so every run and every
+ * commit measures the same data.
+ */
+final class Fixtures {
+
+    private static final long SEED = 42L;
+    private static final int CATEGORIES = 20;
+    private static final String DESCRIPTION = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do "
+            + "eiusmod tempor incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud "
+            + "exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+    private Fixtures() {
+    }
+
+    static List<Product> products(int count, int categoriesPerProduct) {
+        Random random = new Random(SEED);
+        List<Category> categories = new ArrayList<>();
+        for (long i = 1; i <= CATEGORIES; i++) {
+            categories.add(new Category(i, "Category " + i));
+        }
+        List<Product> products = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            Product product = new Product(i, "Product " + i, DESCRIPTION, 10.0 + random.nextInt(5000),
+                    "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/" + i + "-big.jpg",
+                    Instant.parse("2020-07-14T10:00:00Z").plusSeconds(random.nextInt(10000000)));
+            while (product.getCategories().size() < categoriesPerProduct) {
+                product.getCategories().add(categories.get(random.nextInt(CATEGORIES)));
+            }
+            products.add(product);
+        }
+        return products;
+    }
+
+    static List<User> users(int count) {
+        Role operator = new Role(1L, "ROLE_OPERATOR");
+        Role admin = new Role(2L, "ROLE_ADMIN");
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            User user = new User(i, "First" + i, "Last" + i, "user" + i + "@gmail.com",
+                    "$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG");
+            user.getRoles().add(operator);
+            if (i % 2 == 0) {
+                user.getRoles().add(admin);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Configured like the ObjectMapper Spring Boot gives the application.
+     */
+    static ObjectMapper objectMapper() {
+        return objectMapper(new JsonFactory());
+    }
+
+    /**
+     * Same configuration over another format, like the CBOR and Smile
+     * message converters of the application.
+     */
+    static ObjectMapper objectMapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writes listing pages to JSON bytes, as the message converter does for
+ * GET /products and GET /users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializationBenchmark {
+
+    private static final long TOTAL_ELEMENTS = 10000L;
+
+    @Param({"12", "100"})
+    private int pageSize;
+
+    @Param({"3"})
+    private int categoriesPerProduct;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductDTO> products;
+    private Page<UserDTO> users;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        products = new PageImpl<>(Fixtures.products(pageSize, categoriesPerProduct).stream()
+                .map(product -> new ProductDTO(product, product.getCategories()))
+                .collect(Collectors.toList()), pageable, TOTAL_ELEMENTS);
+        users = new PageImpl<>(Fixtures.users(pageSize).stream()
+                .map(UserDTO::new)
+                .collect(Collectors.toList()), pageable, TOTAL_ELEMENTS);
+    }
+
+    @Benchmark
+    public byte[] writeProductPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] writeUserPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
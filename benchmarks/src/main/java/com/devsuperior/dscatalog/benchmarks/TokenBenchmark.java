@@ -0,0 +1,75 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and reads JWTs with the HMAC converter the application uses, and
+ * builds the authorities of a user, as every login and authenticated
+ * request does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TokenBenchmark {
+
+    private JwtAccessTokenConverter converter;
+    private OAuth2Authentication authentication;
+    private String tokenValue;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        converter = new JwtAccessTokenConverter();
+        converter.setSigningKey("MY-JWT-SECRET");
+        user = Fixtures.users(2).get(1);
+        OAuth2Request request = new OAuth2Request(Map.of(), "dscatalog", user.getAuthorities(), true,
+                Set.of("read", "write"), Set.of(), null, Set.of(), Map.of());
+        authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        tokenValue = encode().getValue();
+    }
+
+    @Benchmark
+    public OAuth2AccessToken encode() {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("token");
+        token.setExpiration(new Date(4102444800000L));
+        token.setScope(Set.of("read", "write"));
+        return converter.enhance(token, authentication);
+    }
+
+    @Benchmark
+    public OAuth2Authentication decode() {
+        return converter.extractAuthentication(converter.decode(tokenValue));
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> userAuthorities() {
+        return user.getAuthorities();
+    }
+}
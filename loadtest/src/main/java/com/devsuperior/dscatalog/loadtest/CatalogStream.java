@@ -0,0 +1,71 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * NDJSON products for POST /products/imports, generated as the body is read
+ * so seeding a large catalog takes constant memory.
+ */
+class CatalogStream extends InputStream {
+
+    private static final String[] WORDS = {"PC", "Gamer", "Smart", "TV", "Phone", "Macbook", "Pro", "Alfa",
+            "Livro", "Notebook", "Monitor", "Teclado", "Mouse", "Câmera", "Áudio", "Edição", "Lite", "Max"};
+
+    private final Random random;
+    private final int products;
+    private final int categories;
+    private int written;
+    private byte[] line = new byte[0];
+    private int position;
+
+    CatalogStream(int products, int categories, long seed) {
+        this.products = products;
+        this.categories = categories;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public int read() {
+        if (position == line.length && !nextLine()) {
+            return -1;
+        }
+        return line[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == line.length && !nextLine()) {
+            return -1;
+        }
+        int n = Math.min(length, line.length - position);
+        System.arraycopy(line, position, buffer, offset, n);
+        position += n;
+        return n;
+    }
+
+    private boolean nextLine() {
+        if (written == products) {
+            return false;
+        }
+        written++;
+        StringBuilder name = new StringBuilder();
+        int words = 2 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            name.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        String json = "{\"name\":\"" + name + " " + written + "\""
+                + ",\"description\":\"Produto gerado para teste de carga, número " + written + ".\""
+                + ",\"price\":" + (1 + random.nextInt(500000)) / 100.0
+                + ",\"imgUrl\":\"https://img.com/" + written + ".png\""
+                + ",\"date\":\"2020-07-14T10:00:00Z\""
+                + ",\"categories\":[{\"id\":" + (1 + random.nextInt(categories)) + "}]}\n";
+        line = json.getBytes(StandardCharsets.UTF_8);
+        position = 0;
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and response statuses of one endpoint. Status 0 counts requests
+ * that failed without a response.
+ */
+class EndpointStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        statuses.merge(status, 1L, Long::sum);
+        if (status == 0 || status >= 400) {
+            errors++;
+        }
+    }
+
+    synchronized String toJson(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"requests\":").append(count);
+        json.append(",\"errors\":").append(errors);
+        json.append(",\"throughput\":").append(round(count / seconds));
+        json.append(",\"p50Ms\":").append(percentile(sorted, 0.50));
+        json.append(",\"p95Ms\":").append(percentile(sorted, 0.95));
+        json.append(",\"p99Ms\":").append(percentile(sorted, 0.99));
+        json.append(",\"maxMs\":").append(sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1e6));
+        json.append(",\"statuses\":{");
+        String separator = "";
+        for (Map.Entry<Integer, Long> status : statuses.entrySet()) {
+            json.append(separator).append('"').append(status.getKey()).append("\":").append(status.getValue());
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    // nearest-rank percentile, in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return round(sorted[Math.max(rank, 1) - 1] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,259 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives mixed traffic against a running backend from concurrent clients
+ * and writes throughput and latency percentiles per endpoint as JSON.
+ *
+ * <pre>
+ * java -jar target/loadtest.jar --base-url=http://localhost:8080 --clients=32 \
+ *     --duration=60 --warmup=15 --seed-products=100000 --output=report.json
+ * </pre>
+ *
+ * Each client repeatedly picks one of: browse (GET /products filtered by
+ * categoryId and name), detail (GET /products/{id}), login (POST
+ * /oauth/token) and admin write (POST /products), weighted by the --browse,
+ * --detail, --login and --write options. Requests sent during the warmup are
+ * not recorded. With --seed-products the catalog is first grown through
+ * POST /products/imports.
+ */
+public class LoadTest {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"access_token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern FIRST_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String[] NAME_TERMS = {"", "", "pc", "gamer", "smart", "tv", "macbook", "livro", "câmera"};
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final HttpClient http;
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    private final EndpointStats total = new EndpointStats();
+    private volatile boolean recording;
+    private Instant measuredFrom;
+    private long maxProductId = 25;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("base-url", "http://localhost:8080");
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String endpoint : new String[] {"GET /products", "GET /products/{id}", "POST /oauth/token", "POST /products"}) {
+            endpoints.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Options take the form --name=value, got: " + arg);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        int seedProducts = Integer.parseInt(option("seed-products", "0"));
+        if (seedProducts > 0) {
+            seed(seedProducts);
+        }
+        maxProductId = findMaxProductId();
+
+        int clients = Integer.parseInt(option("clients", "16"));
+        int warmup = Integer.parseInt(option("warmup", "10"));
+        int duration = Integer.parseInt(option("duration", "30"));
+        int[] weights = {
+                Integer.parseInt(option("browse", "60")),
+                Integer.parseInt(option("detail", "25")),
+                Integer.parseInt(option("login", "10")),
+                Integer.parseInt(option("write", "5"))};
+
+        System.err.printf("Running %d clients against %s: %ds warmup, %ds measured, %d products%n",
+                clients, baseUrl, warmup, duration, maxProductId);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            pool.execute(() -> client(weights, deadline));
+        }
+        while (System.nanoTime() < measureFrom) {
+            Thread.sleep(10);
+        }
+        measuredFrom = Instant.now();
+        recording = true;
+        pool.shutdown();
+        pool.awaitTermination(duration + 60L, TimeUnit.SECONDS);
+        recording = false;
+
+        String report = report(clients, duration, seedProducts);
+        String output = option("output", null);
+        if (output == null) {
+            System.out.println(report);
+        } else {
+            Files.writeString(Path.of(output), report + System.lineSeparator());
+            System.err.println("Report written to " + output);
+        }
+    }
+
+    private void client(int[] weights, long deadline) {
+        String token = null;
+        int weightSum = weights[0] + weights[1] + weights[2] + weights[3];
+        while (System.nanoTime() < deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pick = random.nextInt(weightSum);
+            if ((pick -= weights[0]) < 0) {
+                String name = NAME_TERMS[random.nextInt(NAME_TERMS.length)];
+                send("GET /products", get("/products?page=" + random.nextInt(5) + "&size=12"
+                        + "&categoryId=" + random.nextInt(4)
+                        + "&name=" + URLEncoder.encode(name, StandardCharsets.UTF_8)));
+            } else if ((pick -= weights[1]) < 0) {
+                send("GET /products/{id}", get("/products/" + (1 + random.nextLong(maxProductId))));
+            } else if ((pick -= weights[2]) < 0) {
+                token = accessToken(send("POST /oauth/token", login()));
+            } else {
+                if (token == null) {
+                    token = accessToken(send("POST /oauth/token", login()));
+                }
+                String body = "{\"name\":\"Carga " + random.nextInt(1_000_000) + " Edição\""
+                        + ",\"description\":\"Produto criado pelo teste de carga\""
+                        + ",\"price\":" + (1 + random.nextInt(100000)) / 100.0
+                        + ",\"imgUrl\":\"https://img.com/loadtest.png\""
+                        + ",\"date\":\"" + Instant.now() + "\""
+                        + ",\"categories\":[{\"id\":" + (1 + random.nextInt(3)) + "}]}";
+                HttpResponse<String> response = send("POST /products", HttpRequest.newBuilder(uri("/products"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build());
+                if (response != null && response.statusCode() == 401) {
+                    token = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the request and records it under the endpoint once the warmup is
+     * over. Returns null when no response was received.
+     */
+    private HttpResponse<String> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // counted as status 0
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long latency = System.nanoTime() - start;
+        if (recording) {
+            int status = response == null ? 0 : response.statusCode();
+            endpoints.get(endpoint).record(latency, status);
+            total.record(latency, status);
+        }
+        return response;
+    }
+
+    private void seed(int products) throws Exception {
+        System.err.printf("Importing %d products into %s%n", products, baseUrl);
+        String token = accessToken(http.send(login(), HttpResponse.BodyHandlers.ofString()));
+        if (token == null) {
+            throw new IllegalStateException("Could not log in as " + option("username", "maria@gmail.com"));
+        }
+        long seed = Long.parseLong(option("seed", "42"));
+        HttpRequest request = HttpRequest.newBuilder(uri("/products/imports?format=ndjson"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new CatalogStream(products, 3, seed)))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201 || !response.body().contains("\"status\":\"COMPLETED\"")) {
+            throw new IllegalStateException("Import failed with " + response.statusCode() + ": " + response.body());
+        }
+        System.err.println("Import finished: " + response.body());
+    }
+
+    private long findMaxProductId() throws Exception {
+        HttpResponse<String> response = http.send(get("/products?size=1&sort=id,desc"),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = FIRST_ID.matcher(response.body());
+        return response.statusCode() == 200 && matcher.find() ? Long.parseLong(matcher.group(1)) : maxProductId;
+    }
+
+    private HttpRequest login() {
+        String client = option("client-id", "dscatalog") + ":" + option("client-secret", "dscatalog123");
+        String form = "grant_type=password"
+                + "&username=" + URLEncoder.encode(option("username", "maria@gmail.com"), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(option("password", "123456"), StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(uri("/oauth/token"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(client.getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Accept", "application/json").GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String accessToken(HttpResponse<String> response) {
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private String report(int clients, int duration, int seedProducts) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"baseUrl\":\"").append(baseUrl).append('"');
+        json.append(",\"measuredFrom\":\"").append(measuredFrom).append('"');
+        json.append(",\"clients\":").append(clients);
+        json.append(",\"durationSeconds\":").append(duration);
+        json.append(",\"seedProducts\":").append(seedProducts);
+        json.append(",\"products\":").append(maxProductId);
+        json.append(",\"total\":").append(total.toJson(duration));
+        json.append(",\"endpoints\":{");
+        String separator = "";
+        for (Map.Entry<String, EndpointStats> endpoint : endpoints.entrySet()) {
+            json.append(separator).append("\n  \"").append(endpoint.getKey()).append("\":")
+                    .append(endpoint.getValue().toJson(duration));
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}